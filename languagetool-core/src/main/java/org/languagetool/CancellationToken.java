@@ -0,0 +1,70 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops a running check, either explicitly via {@link #cancel()} from another thread,
+ * or once a deadline has passed. The check looks at the token between sentences and
+ * between rules and then throws a {@link CheckCancelledException}. Thread-safe.
+ * @see JLanguageTool#setCancellationToken(CancellationToken)
+ * @since 2.6
+ */
+public class CancellationToken {
+
+  private final boolean hasDeadline;
+  private final long deadline;
+  private volatile boolean cancelled;
+
+  /**
+   * A token without a deadline, so checks only stop when {@link #cancel()} is called.
+   */
+  public CancellationToken() {
+    this.hasDeadline = false;
+    this.deadline = 0;
+  }
+
+  /**
+   * @param timeoutMillis checks stop after this time, counted from now, or when {@link #cancel()} is called
+   */
+  public CancellationToken(long timeoutMillis) {
+    this.hasDeadline = true;
+    this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+  }
+
+  /**
+   * Stop the checks using this token as soon as possible.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  public boolean isCancelled() {
+    return cancelled || isDeadlinePassed();
+  }
+
+  /**
+   * Whether the token has a deadline and it has passed.
+   */
+  public boolean isDeadlinePassed() {
+    return hasDeadline && System.nanoTime() - deadline > 0;
+  }
+
+}
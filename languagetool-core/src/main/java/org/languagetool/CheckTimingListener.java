@@ -0,0 +1,55 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.languagetool.rules.Rule;
+
+/**
+ * Gets informed about the time spent in the stages of checking a text, e.g. to collect
+ * statistics. The methods are called for every sentence, possibly from several threads at
+ * the same time (see {@link MultiThreadedJLanguageTool}), so they need to be thread-safe and fast.
+ * @see JLanguageTool#setCheckTimingListener(CheckTimingListener)
+ * @since 2.6
+ */
+public interface CheckTimingListener {
+
+  enum Stage {
+    /** Splitting the text into sentences, once per text. */
+    SENTENCE_TOKENIZING,
+    /** Splitting a sentence into words, tagging and chunking them, once per sentence. */
+    TAGGING,
+    /** Disambiguating the tags of a sentence, once per sentence. */
+    DISAMBIGUATION,
+    /** Matching the rules against a sentence, once per sentence and set of rules checked together. */
+    RULE_MATCHING
+  }
+
+  /**
+   * @param nanos the time spent in the stage, as measured with {@link System#nanoTime()}
+   */
+  void stageDone(Stage stage, long nanos);
+
+  /**
+   * Called only for the sentences sampled by {@link RuleTimings}, i.e. for about every
+   * {@link RuleTimings#SAMPLE_INTERVAL}th sentence, to keep the overhead low.
+   * @param nanos the time {@code rule} needed to match one sentence, as measured with {@link System#nanoTime()}
+   */
+  void ruleDone(Rule rule, long nanos);
+
+}
@@ -0,0 +1,254 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.RuleMatchFilter;
+import org.languagetool.rules.SameRuleGroupFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks a text again and again while it's being edited, e.g. in an editor that checks
+ * while the user is typing. Only the sentences changed since the previous check and
+ * their neighbours are analyzed and matched against the rules again, the results of
+ * the other sentences are re-used. Only the paragraph-level rules, which may remove a
+ * match because of a later sentence, check the complete text each time. The matches
+ * are the same as those of {@link JLanguageTool#check(String)}, as long as the other
+ * rules that keep state across sentences only look at the few sentences before, like
+ * {@link org.languagetool.rules.WordRepeatBeginningRule} does. The sentences are
+ * analyzed and matched with several threads if the {@link JLanguageTool} is a
+ * {@link MultiThreadedJLanguageTool}. Not thread-safe.
+ * @since 2.6
+ */
+public class IncrementalChecker {
+
+  // the number of previous sentences that a rule's state depends on, at most:
+  private static final int RULE_STATE_SENTENCES = 2;
+
+  private final JLanguageTool languageTool;
+
+  // the text of the previous check and its sentences, or null if everything needs to be checked:
+  private String text;
+  private List<CheckedSentence> sentences = new ArrayList<>();
+
+  /**
+   * @param languageTool the instance to check with. Call {@link #reset()} whenever its rule configuration changes.
+   */
+  public IncrementalChecker(JLanguageTool languageTool) {
+    this.languageTool = languageTool;
+  }
+
+  public JLanguageTool getLanguageTool() {
+    return languageTool;
+  }
+
+  /**
+   * Forget the results of the previous checks, so the next check checks the complete text.
+   */
+  public void reset() {
+    text = null;
+    sentences = new ArrayList<>();
+  }
+
+  /**
+   * Check the text, re-using the results of the previous check for the sentences that haven't changed.
+   * @return the matches, like those of {@link JLanguageTool#check(String)}
+   */
+  public List<RuleMatch> check(String newText) throws IOException {
+    final String oldText = text;
+    // in case the check fails, the next one checks everything:
+    text = null;
+    languageTool.startCheck();
+    // this resets the state of the rules:
+    final List<Rule> allRules = languageTool.getAllRules();
+    final List<Rule> sentenceRules = new ArrayList<>();
+    final List<Rule> paragraphRules = new ArrayList<>();
+    final Map<Rule, Integer> ruleIndexes = new IdentityHashMap<>();
+    for (Rule rule : allRules) {
+      ruleIndexes.put(rule, ruleIndexes.size());
+      if (rule.isParagraphBackTrack()) {
+        paragraphRules.add(rule);
+      } else {
+        sentenceRules.add(rule);
+      }
+    }
+    updateSentences(oldText, newText, sentenceRules);
+
+    final List<RuleMatch> ruleMatches = new ArrayList<>();
+    final Comparator<RuleMatch> ruleOrder = new RuleOrder(ruleIndexes);
+    final RuleMatchFilter filter = new SameRuleGroupFilter();
+    int charCount = 0;
+    int lineCount = 0;
+    int columnCount = 1;
+    for (CheckedSentence sentence : sentences) {
+      final List<RuleMatch> sentenceMatches = languageTool.matchAnalyzedSentence(JLanguageTool.ParagraphHandling.NORMAL,
+              paragraphRules, charCount, lineCount, columnCount, sentence.text, sentence.analyzedSentence, null);
+      for (RuleMatch match : sentence.matches) {
+        // the cached matches are relative to their sentence:
+        sentenceMatches.add(match.copyWithPosition(match.getFromPos() + charCount,
+                match.getToPos() + charCount, lineCount, columnCount));
+      }
+      // the filter only looks at neighbouring matches, so it needs them in the order JLanguageTool.check() has them in:
+      Collections.sort(sentenceMatches, ruleOrder);
+      ruleMatches.addAll(filter.filter(sentenceMatches));
+      charCount += sentence.text.length();
+      lineCount += JLanguageTool.countLineBreaks(sentence.text);
+      columnCount = languageTool.getColumnCountAfter(sentence.text, columnCount);
+    }
+    // removing false positives in paragraph-level rules, like JLanguageTool.check() does:
+    for (Rule rule : paragraphRules) {
+      if (rule.getMatches() != null) {
+        for (RuleMatch match : rule.getMatches()) {
+          if (rule.isInRemoved(match)) {
+            ruleMatches.remove(match);
+          }
+        }
+      }
+    }
+    Collections.sort(ruleMatches);
+    // results with skipped rules must not be re-used:
+    if (!languageTool.isPartialResult()) {
+      text = newText;
+    }
+    return ruleMatches;
+  }
+
+  /**
+   * Replace the sentences that have been changed by the edit, and their neighbours,
+   * with the newly analyzed and checked sentences of the new text.
+   */
+  private void updateSentences(String oldText, String newText, List<Rule> sentenceRules) throws IOException {
+    if (newText.equals(oldText)) {
+      return;
+    }
+    int first = 0;
+    int end = sentences.size();
+    int regionStart = 0;
+    int regionOldEnd = oldText == null ? 0 : oldText.length();
+    if (oldText != null && !sentences.isEmpty()) {
+      final int prefix = getCommonPrefixLength(oldText, newText);
+      final int suffix = getCommonSuffixLength(oldText, newText, prefix);
+      final int oldChangeEnd = oldText.length() - suffix;
+      // the first sentence that ends after the unchanged start and the last one that starts
+      // before the unchanged end have been changed, and the edit may have moved the
+      // boundaries to the sentences next to them, so those get checked again, too. The
+      // matches of the sentences after them may depend on the state the changed ones left:
+      int firstChanged = sentences.size() - 1;
+      int lastChanged = 0;
+      int pos = 0;
+      for (int i = 0; i < sentences.size(); i++) {
+        final int sentenceEnd = pos + sentences.get(i).text.length();
+        if (sentenceEnd > prefix && firstChanged > i) {
+          firstChanged = i;
+        }
+        if (pos <= oldChangeEnd) {
+          lastChanged = i;
+        }
+        pos = sentenceEnd;
+      }
+      first = Math.max(0, Math.min(firstChanged, lastChanged) - 1);
+      end = Math.min(sentences.size(), Math.max(firstChanged, lastChanged) + 2 + RULE_STATE_SENTENCES);
+      regionStart = 0;
+      regionOldEnd = 0;
+      for (int i = 0; i < end; i++) {
+        if (i < first) {
+          regionStart += sentences.get(i).text.length();
+        }
+        regionOldEnd += sentences.get(i).text.length();
+      }
+    }
+    final int oldLength = oldText == null ? 0 : oldText.length();
+    final int regionNewEnd = regionOldEnd + newText.length() - oldLength;
+    final List<CheckedSentence> newSentences = new ArrayList<>(sentences.subList(0, first));
+    final String region = newText.substring(regionStart, regionNewEnd);
+    if (!region.isEmpty() || newText.isEmpty()) {
+      final List<String> regionSentences = languageTool.sentenceTokenize(region);
+      final List<AnalyzedSentence> analyzedRegion = languageTool.analyzeSentences(regionSentences, regionNewEnd == newText.length());
+      // the sentences before the region are matched again only to bring the rules into the state they'd have:
+      final List<String> texts = new ArrayList<>();
+      final List<AnalyzedSentence> analyzedSentences = new ArrayList<>();
+      for (CheckedSentence sentence : sentences.subList(Math.max(0, first - RULE_STATE_SENTENCES), first)) {
+        texts.add(sentence.text);
+        analyzedSentences.add(sentence.analyzedSentence);
+      }
+      final int skipped = texts.size();
+      texts.addAll(regionSentences);
+      analyzedSentences.addAll(analyzedRegion);
+      final List<List<RuleMatch>> matches = languageTool.matchSentences(analyzedSentences, texts, sentenceRules);
+      for (int i = 0; i < regionSentences.size(); i++) {
+        newSentences.add(new CheckedSentence(regionSentences.get(i), analyzedRegion.get(i), matches.get(skipped + i)));
+      }
+    }
+    newSentences.addAll(sentences.subList(end, sentences.size()));
+    sentences = newSentences;
+  }
+
+  private static int getCommonPrefixLength(String s1, String s2) {
+    final int maxLength = Math.min(s1.length(), s2.length());
+    int i = 0;
+    while (i < maxLength && s1.charAt(i) == s2.charAt(i)) {
+      i++;
+    }
+    return i;
+  }
+
+  // the suffix doesn't overlap with the prefix in either string:
+  private static int getCommonSuffixLength(String s1, String s2, int prefixLength) {
+    final int maxLength = Math.min(s1.length(), s2.length()) - prefixLength;
+    int i = 0;
+    while (i < maxLength && s1.charAt(s1.length() - 1 - i) == s2.charAt(s2.length() - 1 - i)) {
+      i++;
+    }
+    return i;
+  }
+
+  private static class RuleOrder implements Comparator<RuleMatch> {
+    private final Map<Rule, Integer> ruleIndexes;
+    RuleOrder(Map<Rule, Integer> ruleIndexes) {
+      this.ruleIndexes = ruleIndexes;
+    }
+    @Override
+    public int compare(RuleMatch match1, RuleMatch match2) {
+      return Integer.compare(ruleIndexes.get(match1.getRule()), ruleIndexes.get(match2.getRule()));
+    }
+  }
+
+  /**
+   * A sentence with the matches of the rules that aren't paragraph-level rules, not yet filtered, relative to the sentence.
+   */
+  private static class CheckedSentence {
+    private final String text;
+    private final AnalyzedSentence analyzedSentence;
+    private final List<RuleMatch> matches;
+    CheckedSentence(String text, AnalyzedSentence analyzedSentence, List<RuleMatch> matches) {
+      this.text = text;
+      this.analyzedSentence = analyzedSentence;
+      this.matches = matches;
+    }
+  }
+
+}
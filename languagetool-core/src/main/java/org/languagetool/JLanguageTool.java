@@ -22,6 +22,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.io.Reader;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.net.JarURLConnection;
@@ -36,6 +37,9 @@ import java.util.Objects;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.jar.Manifest;
 
 import javax.xml.parsers.ParserConfigurationException;
@@ -52,6 +56,7 @@ import org.languagetool.rules.RuleMatchFilter;
 import org.languagetool.rules.SameRuleGroupFilter;
 import org.languagetool.rules.patterns.FalseFriendRuleLoader;
 import org.languagetool.rules.patterns.PatternRule;
+import org.languagetool.rules.patterns.PatternRuleIndex;
 import org.languagetool.rules.patterns.PatternRuleLoader;
 import org.languagetool.rules.spelling.SpellingCheckRule;
 import org.languagetool.rules.spelling.SuggestionExtractor;
@@ -78,7 +83,9 @@ import org.xml.sax.SAXException;
  * 
  * <p><b>Thread-safety:</b> this class is not thread safe. Create one instance per thread,
  * but create the language only once (e.g. {@code new English()}) and use it for all
- * instances of JLanguageTool.</p>
+ * instances of JLanguageTool. The rules activated with {@link #activateDefaultPatternRules()}
+ * and {@link #activateDefaultFalseFriendRules()} are loaded only once and shared by all
+ * instances, so creating more instances is cheap.</p>
  * 
  * @see MultiThreadedJLanguageTool
  */
@@ -127,12 +134,23 @@ public class JLanguageTool {
   
   private static ResourceDataBroker dataBroker = new DefaultResourceDataBroker();
 
+  // Pattern rules are not modified while checking text, so the default rules of a
+  // language are loaded only once per JVM and shared by all instances:
+  private static final ConcurrentMap<String, List<PatternRule>> sharedPatternRules = new ConcurrentHashMap<>();
+
+  // with a time budget, rules that need more than this fraction of it per sentence are skipped...
+  private static final int SLOW_RULE_BUDGET_FRACTION = 10;
+  // ...once they have been timed for this many sentences:
+  private static final int SLOW_RULE_MIN_SAMPLES = 5;
+
   private final List<Rule> builtinRules = new ArrayList<>();
   private final List<Rule> userRules = new ArrayList<>(); // rules added via addRule() method
   private final Set<String> disabledRules = new HashSet<>();
   private final Set<String> enabledRules = new HashSet<>();
   private final Set<String> disabledCategories = new HashSet<>();
 
+  private volatile PatternRuleIndex patternRuleIndex;  // built lazily, reset when rules are added
+
   private Language language;
   private Language motherTongue;
   private Disambiguator disambiguator;
@@ -142,10 +160,19 @@ public class JLanguageTool {
   private Chunker chunker;
 
   private PrintStream printStream;
+  private CheckTimingListener timingListener;
+  private final RuleTimings ruleTimings = new RuleTimings();
+  private long timeBudgetMillis;
+  // the budget of the running check, set before its sentences are checked:
+  private long deadline;
+  private Set<Rule> slowRules = Collections.emptySet();
+  private volatile boolean partialResult;
+  private volatile CancellationToken cancellationToken;
 
   private int sentenceCount;
 
   private boolean listUnknownWords;
+  private boolean suggestionsEnabled = true;
   private Set<String> unknownWords;  
 
   /**
@@ -255,6 +282,17 @@ public class JLanguageTool {
     this.listUnknownWords = listUnknownWords;
   }
 
+  /**
+   * Whether the matches of the {@code check...} methods come with suggested replacements
+   * (default: true). Many rules compute their suggestions only when they are asked for, so if
+   * the suggestions are not needed, like for statistics about matches, set this to {@code false}
+   * to avoid computing them at all.
+   * @since 2.6
+   */
+  public void setSuggestionsEnabled(final boolean suggestionsEnabled) {
+    this.suggestionsEnabled = suggestionsEnabled;
+  }
+
   /**
    * Gets the ResourceBundle (i18n strings) for the default language of the user's system.
    */
@@ -317,6 +355,81 @@ public class JLanguageTool {
     this.printStream = printStream;
   }
 
+  /**
+   * Set a listener that gets informed about the time spent in the stages of each check
+   * and by each rule. Set to {@code null} (which is the default) to not measure the time.
+   * Call this before checking text, not while a check is running.
+   * @since 2.6
+   */
+  public void setCheckTimingListener(CheckTimingListener timingListener) {
+    this.timingListener = timingListener;
+  }
+
+  /**
+   * The time the rules need per sentence, measured for a sample of the checked sentences.
+   * @since 2.6
+   */
+  public RuleTimings getRuleTimings() {
+    return ruleTimings;
+  }
+
+  /**
+   * Limit the time a call to a check method like {@link #check(String)} may take. The budget
+   * includes the time needed to analyze the text, not only the time of the rules. Once the
+   * budget is used up, the remaining rules are skipped for the rest of the text, and rules
+   * that have recently needed more than a tenth of the budget per sentence are skipped right away.
+   * Those rules are still timed now and then, so they are used again once they have become faster.
+   * As rules are never interrupted while matching a sentence, a check may still take a bit longer.
+   * Use {@link #isPartialResult()} to find out if rules have been skipped.
+   * Call this before checking text, not while a check is running.
+   * @param timeBudgetMillis the budget in milliseconds, or {@code 0} (which is the default) for no limit
+   * @since 2.6
+   */
+  public void setTimeBudgetMillis(long timeBudgetMillis) {
+    if (timeBudgetMillis < 0) {
+      throw new IllegalArgumentException("Time budget must be >= 0: " + timeBudgetMillis);
+    }
+    this.timeBudgetMillis = timeBudgetMillis;
+  }
+
+  /**
+   * Set a token that stops the checks of this instance when it's cancelled or its deadline
+   * has passed. The token is looked at between sentences and between rules, a rule is never
+   * interrupted while matching a sentence. Interrupting the checking thread stops the check, too.
+   * Checks that are stopped throw a {@link CheckCancelledException}.
+   * Call this before checking text, not while a check is running.
+   * @param cancellationToken the token, or {@code null} (which is the default) for checks that
+   *                          only stop on interruption
+   * @since 2.6
+   */
+  public void setCancellationToken(CancellationToken cancellationToken) {
+    this.cancellationToken = cancellationToken;
+  }
+
+  /**
+   * Throw a {@link CheckCancelledException} if the check has been cancelled via the
+   * {@link CancellationToken} or if the current thread has been interrupted.
+   */
+  void checkCancelled() {
+    final CancellationToken token = cancellationToken;
+    if (token != null && token.isCancelled()) {
+      throw new CheckCancelledException(token.isDeadlinePassed() ? "Check deadline has passed" : "Check has been cancelled");
+    }
+    if (Thread.currentThread().isInterrupted()) {
+      throw new CheckCancelledException("Checking thread has been interrupted");
+    }
+  }
+
+  /**
+   * Whether rules have been skipped in the latest call to a check method like {@link #check(String)}
+   * because of the time budget, so that some errors may not have been found.
+   * @see #setTimeBudgetMillis(long)
+   * @since 2.6
+   */
+  public boolean isPartialResult() {
+    return partialResult;
+  }
+
   /**
    * Load pattern rules from an XML file. Use {@link #addRule(Rule)} to add these
    * rules to the checking process.
@@ -361,8 +474,31 @@ public class JLanguageTool {
   /**
    * Loads and activates the pattern rules from
    * {@code org/languagetool/rules/<languageCode>/grammar.xml}.
+   * The rules are loaded only once per JVM and language and then shared between
+   * all instances of this class, so they must not be modified.
    */
   public void activateDefaultPatternRules() throws IOException {
+    if (!language.getExternalRuleFiles().isEmpty()) {
+      // external rule files might be edited by the user, so always load them again:
+      userRules.addAll(loadDefaultPatternRules());
+      patternRuleIndex = null;
+      return;
+    }
+    final String key = language.getClass().getName() + "/" + language.getShortNameWithCountryAndVariant()
+            + "/" + language.getRuleFileNames();
+    List<PatternRule> patternRules = sharedPatternRules.get(key);
+    if (patternRules == null) {
+      patternRules = Collections.unmodifiableList(loadDefaultPatternRules());
+      final List<PatternRule> previousRules = sharedPatternRules.putIfAbsent(key, patternRules);
+      if (previousRules != null) {
+        patternRules = previousRules;
+      }
+    }
+    userRules.addAll(patternRules);
+    patternRuleIndex = null;
+  }
+
+  private List<PatternRule> loadDefaultPatternRules() throws IOException {
     final List<PatternRule> patternRules = new ArrayList<>();
     final List<String> enabledRules = language.getDefaultEnabledRulesForVariant();
     final List<String> disabledRules = language.getDefaultDisabledRulesForVariant();
@@ -379,18 +515,32 @@ public class JLanguageTool {
         }
       }
     }
-    userRules.addAll(patternRules);
+    return patternRules;
   }
 
   /**
    * Loads and activates the false friend rules from
-   * <code>rules/false-friends.xml</code>.
+   * <code>rules/false-friends.xml</code>. Like the pattern rules, these are
+   * loaded only once per JVM and shared between all instances of this class.
    */
   public void activateDefaultFalseFriendRules()
       throws ParserConfigurationException, SAXException, IOException {
+    if (motherTongue == null) {
+      return;
+    }
     final String falseFriendRulesFilename = JLanguageTool.getDataBroker().getRulesDir() + "/" + FALSE_FRIEND_FILE;
-    final List<PatternRule> patternRules = loadFalseFriendRules(falseFriendRulesFilename);
+    final String key = falseFriendRulesFilename + "/" + language.getClass().getName() + "/" + language.getShortNameWithCountryAndVariant()
+            + "/" + motherTongue.getClass().getName() + "/" + motherTongue.getShortNameWithCountryAndVariant();
+    List<PatternRule> patternRules = sharedPatternRules.get(key);
+    if (patternRules == null) {
+      patternRules = Collections.unmodifiableList(loadFalseFriendRules(falseFriendRulesFilename));
+      final List<PatternRule> previousRules = sharedPatternRules.putIfAbsent(key, patternRules);
+      if (previousRules != null) {
+        patternRules = previousRules;
+      }
+    }
     userRules.addAll(patternRules);
+    patternRuleIndex = null;
   }
 
   /**
@@ -398,6 +548,7 @@ public class JLanguageTool {
    */
   public void addRule(final Rule rule) {
     userRules.add(rule);
+    patternRuleIndex = null;
     final SuggestionExtractor extractor = new SuggestionExtractor();
     final List<String> suggestionTokens = extractor.getSuggestionTokens(rule, language);
     final List<Rule> allActiveRules = getAllActiveRules();
@@ -559,9 +710,14 @@ public class JLanguageTool {
    * @since 2.3
    */
   public List<RuleMatch> check(final AnnotatedText annotatedText, boolean tokenizeText, final ParagraphHandling paraMode) throws IOException {
+    startCheck();
     final List<String> sentences;
     if (tokenizeText) { 
+      final long startTime = timingListener != null ? System.nanoTime() : 0;
       sentences = sentenceTokenize(annotatedText.getPlainText());
+      if (timingListener != null) {
+        timingListener.stageDone(CheckTimingListener.Stage.SENTENCE_TOKENIZING, System.nanoTime() - startTime);
+      }
     } else {
       sentences = new ArrayList<>();
       sentences.add(annotatedText.getPlainText());
@@ -570,7 +726,6 @@ public class JLanguageTool {
     printIfVerbose(allRules.size() + " rules activated for language " + language);
 
     sentenceCount = sentences.size();
-    unknownWords = new HashSet<>();
     final List<AnalyzedSentence> analyzedSentences = analyzeSentences(sentences);
     
     final List<RuleMatch> ruleMatches = performCheck(analyzedSentences, sentences, allRules, paraMode, annotatedText);
@@ -604,32 +759,85 @@ public class JLanguageTool {
     return analyzeSentences(sentences);
   }
   
-  private List<AnalyzedSentence> analyzeSentences(final List<String> sentences) throws IOException {
+  /**
+   * Check a text read from {@code reader} without keeping the complete text in memory,
+   * e.g. for very large files. The text is split into sentences while it's read, and the
+   * sentences are checked in windows of a few hundred sentences. Rules that work across
+   * sentences and paragraphs work like for a text checked with {@link #check(String)}.
+   * The reader is not closed.
+   * @param listener gets the matches, with positions relative to the complete text. The matches
+   *                 of a paragraph are passed on, sorted by position, once the paragraph has been checked.
+   *                 A paragraph of more than a few hundred sentences is passed on in parts, so that a
+   *                 rule working across sentences, e.g. for unpaired brackets, may report a match
+   *                 there that a check of the complete text wouldn't report
+   * @since 2.6
+   */
+  public void check(final Reader reader, final RuleMatchListener listener) throws IOException {
+    startCheck();
+    final List<Rule> allRules = getAllRules();
+    printIfVerbose(allRules.size() + " rules activated for language " + language);
+    sentenceCount = new StreamingTextChecker(this, allRules, listener).check(reader);
+  }
+
+  void startCheck() {
+    checkCancelled();
+    partialResult = false;
+    unknownWords = new HashSet<>();
+    if (timeBudgetMillis > 0) {
+      final long budgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+      deadline = System.nanoTime() + budgetNanos;
+      slowRules = ruleTimings.getRulesSlowerThan(budgetNanos / SLOW_RULE_BUDGET_FRACTION, SLOW_RULE_MIN_SAMPLES);
+    }
+  }
+
+  /**
+   * Analyze the given sentences with {@link #getAnalyzedSentence(String)}, in order.
+   * @since 2.6
+   */
+  protected List<AnalyzedSentence> analyzeSentences(final List<String> sentences) throws IOException {
+    return analyzeSentences(sentences, true);
+  }
+
+  /**
+   * Like {@link #analyzeSentences(List)}, for sentences that may be only a part of the text.
+   * @param lastSentenceEndsText whether the last of the sentences is the last one of the text, so it ends a paragraph
+   * @since 2.6
+   */
+  protected List<AnalyzedSentence> analyzeSentences(final List<String> sentences, boolean lastSentenceEndsText) throws IOException {
     final List<AnalyzedSentence> analyzedSentences = new ArrayList<>();
     
     int j = 0;
     for (final String sentence : sentences) {
-      AnalyzedSentence analyzedSentence = getAnalyzedSentence(sentence);
-      rememberUnknownWords(analyzedSentence);
-      if (++j == sentences.size()) {
-        final AnalyzedTokenReadings[] anTokens = analyzedSentence.getTokens();
-        anTokens[anTokens.length - 1].setParagraphEnd();
-        analyzedSentence = new AnalyzedSentence(anTokens);
-      }
-      analyzedSentences.add(analyzedSentence);
-      printIfVerbose(analyzedSentence.toString());
-      printIfVerbose(analyzedSentence.getAnnotations());
+      addAnalyzedSentence(analyzedSentences, getAnalyzedSentence(sentence), ++j == sentences.size() && lastSentenceEndsText);
     }
     
     return analyzedSentences;
   }
+
+  /**
+   * Add a sentence analyzed by {@link #getAnalyzedSentence(String)} to the list of analyzed sentences.
+   * Needs to be called in sentence order, from one thread only.
+   * @param lastSentence whether this is the last sentence of the text, which ends a paragraph
+   */
+  void addAnalyzedSentence(List<AnalyzedSentence> analyzedSentences, AnalyzedSentence analyzedSentence, boolean lastSentence) {
+    checkCancelled();
+    rememberUnknownWords(analyzedSentence);
+    if (lastSentence) {
+      final AnalyzedTokenReadings[] anTokens = analyzedSentence.getTokens();
+      anTokens[anTokens.length - 1].setParagraphEnd();
+      analyzedSentence = new AnalyzedSentence(anTokens);
+    }
+    analyzedSentences.add(analyzedSentence);
+    printIfVerbose(analyzedSentence.toString());
+    printIfVerbose(analyzedSentence.getAnnotations());
+  }
   
   protected List<RuleMatch> performCheck(final List<AnalyzedSentence> analyzedSentences, final List<String> sentences,
                                          final List<Rule> allRules, ParagraphHandling paraMode, final AnnotatedText annotatedText) throws IOException {
     final Callable<List<RuleMatch>> matcher = new TextCheckCallable(allRules, sentences, analyzedSentences, paraMode, annotatedText, 0, 0, 1);
     try {
       return matcher.call();
-    } catch (IOException e) {
+    } catch (IOException | CheckCancelledException e) {
       throw e;
     } catch (Exception e) {
       throw new RuntimeException(e);
@@ -649,8 +857,44 @@ public class JLanguageTool {
       final List<Rule> allRules, int charCount, int lineCount,
       int columnCount, final String sentence, final AnalyzedSentence analyzedSentence, final AnnotatedText annotatedText)
         throws IOException {
+    final List<RuleMatch> sentenceMatches = matchAnalyzedSentence(paraMode, allRules, charCount, lineCount,
+            columnCount, sentence, analyzedSentence, annotatedText);
+    final RuleMatchFilter filter = new SameRuleGroupFilter();
+    return filter.filter(sentenceMatches);
+  }
+
+  /**
+   * Match each of the given sentences against the rules, with positions relative to the sentence and
+   * without filtering, see {@link #matchAnalyzedSentence}. Rules that keep state across sentences
+   * see the sentences in order.
+   * @return the matches of each sentence, in the order of the rules
+   */
+  List<List<RuleMatch>> matchSentences(List<AnalyzedSentence> analyzedSentences, List<String> sentences,
+                                       List<Rule> rules) throws IOException {
+    final List<List<RuleMatch>> matches = new ArrayList<>(sentences.size());
+    for (int i = 0; i < sentences.size(); i++) {
+      matches.add(matchAnalyzedSentence(ParagraphHandling.NORMAL, rules, 0, 0, 1, sentences.get(i), analyzedSentences.get(i), null));
+    }
+    return matches;
+  }
+
+  /**
+   * Like {@link #checkAnalyzedSentence(ParagraphHandling, List, int, int, int, String, AnalyzedSentence, AnnotatedText)},
+   * but without filtering the overlapping matches of a rule group. The matches are in the order of the rules.
+   */
+  List<RuleMatch> matchAnalyzedSentence(final ParagraphHandling paraMode,
+      final List<Rule> allRules, int charCount, int lineCount,
+      int columnCount, final String sentence, final AnalyzedSentence analyzedSentence, final AnnotatedText annotatedText)
+        throws IOException {
+    final CheckTimingListener listener = timingListener;
+    final long startTime = listener != null ? System.nanoTime() : 0;
+    final boolean timeRules = ruleTimings.sampleNextSentence();
+    final boolean hasBudget = timeBudgetMillis > 0;
     final List<RuleMatch> sentenceMatches = new ArrayList<>();
+    // only built when needed, as the callables of MultiThreadedJLanguageTool may have no pattern rules:
+    PatternRuleIndex.SentenceFilter ruleFilter = null;
     for (final Rule rule : allRules) {
+      checkCancelled();
       if (disabledRules.contains(rule.getId())
           || (rule.isDefaultOff() && !enabledRules.contains(rule.getId()))) {
         continue;
@@ -661,9 +905,14 @@ public class JLanguageTool {
         continue;
       }
       
-      if (rule instanceof PatternRule && ((PatternRule)rule).canBeIgnoredFor(analyzedSentence)) {
-        // this is a performance optimization, it should have no effect on matching logic
-        continue;
+      if (rule instanceof PatternRule) {
+        if (ruleFilter == null) {
+          ruleFilter = getPatternRuleIndex().getFilter(analyzedSentence);
+        }
+        if (ruleFilter.canBeIgnored((PatternRule)rule)) {
+          // this is a performance optimization, it should have no effect on matching logic
+          continue;
+        }
       }
 
       switch (paraMode) {
@@ -683,7 +932,22 @@ public class JLanguageTool {
         default:
       }
 
+      // slow rules still match the sampled sentences, so they are timed again and are
+      // no longer skipped once they have become faster:
+      if (hasBudget && ((slowRules.contains(rule) && !timeRules) || System.nanoTime() - deadline > 0)) {
+        partialResult = true;
+        continue;
+      }
+
+      final long ruleStartTime = timeRules ? System.nanoTime() : 0;
       final RuleMatch[] thisMatches = rule.match(analyzedSentence);
+      if (timeRules) {
+        final long ruleNanos = System.nanoTime() - ruleStartTime;
+        ruleTimings.add(rule, ruleNanos);
+        if (listener != null) {
+          listener.ruleDone(rule, ruleNanos);
+        }
+      }
       for (final RuleMatch element1 : thisMatches) {
         final RuleMatch thisMatch = adjustRuleMatchPos(element1,
             charCount, columnCount, lineCount, sentence, annotatedText);
@@ -693,8 +957,22 @@ public class JLanguageTool {
         }
       }
     }
-    final RuleMatchFilter filter = new SameRuleGroupFilter();
-    return filter.filter(sentenceMatches);
+    if (listener != null) {
+      listener.stageDone(CheckTimingListener.Stage.RULE_MATCHING, System.nanoTime() - startTime);
+    }
+    return sentenceMatches;
+  }
+
+  private PatternRuleIndex getPatternRuleIndex() {
+    PatternRuleIndex index = patternRuleIndex;
+    if (index == null) {
+      // may be built more than once by concurrent callables, which is harmless:
+      final List<Rule> rules = new ArrayList<>(builtinRules);
+      rules.addAll(userRules);
+      index = new PatternRuleIndex(rules);
+      patternRuleIndex = index;
+    }
+    return index;
   }
 
   /**
@@ -716,7 +994,11 @@ public class JLanguageTool {
     }
     final RuleMatch thisMatch = new RuleMatch(match.getRule(),
         fromPos, toPos, match.getMessage(), match.getShortMessage());
-    thisMatch.setSuggestedReplacements(match.getSuggestedReplacements());
+    if (suggestionsEnabled) {
+      thisMatch.copySuggestedReplacementsFrom(match);
+    } else {
+      thisMatch.setSuggestedReplacements(new ArrayList<String>());
+    }
     final String sentencePartToError = sentence.substring(0, match.getFromPos());
     final String sentencePartToEndOfError = sentence.substring(0,match.getToPos());
     final int lastLineBreakPos = sentencePartToError.lastIndexOf('\n');
@@ -791,7 +1073,17 @@ public class JLanguageTool {
    * @param sentence sentence to be analyzed
    */
   public AnalyzedSentence getAnalyzedSentence(final String sentence) throws IOException {
-    return disambiguator.disambiguate(getRawAnalyzedSentence(sentence));
+    final CheckTimingListener listener = timingListener;
+    if (listener == null) {
+      return disambiguator.disambiguate(getRawAnalyzedSentence(sentence));
+    }
+    final long startTime = System.nanoTime();
+    final AnalyzedSentence rawSentence = getRawAnalyzedSentence(sentence);
+    final long taggingDoneTime = System.nanoTime();
+    listener.stageDone(CheckTimingListener.Stage.TAGGING, taggingDoneTime - startTime);
+    final AnalyzedSentence disambiguatedSentence = disambiguator.disambiguate(rawSentence);
+    listener.stageDone(CheckTimingListener.Stage.DISAMBIGUATION, System.nanoTime() - taggingDoneTime);
+    return disambiguatedSentence;
   }
 
   /**
@@ -999,23 +1291,29 @@ public class JLanguageTool {
         ruleMatches.addAll(sentenceMatches);
         charCount += sentence.length();
         lineCount += countLineBreaks(sentence);
+        columnCount = getColumnCountAfter(sentence, columnCount);
+      }
+      return ruleMatches;
+    }
+  }
 
-        // calculate matching column:
-        final int lineBreakPos = sentence.lastIndexOf('\n');
-        if (lineBreakPos == -1) {
-          columnCount += sentence.length();
-        } else {
-          if (lineBreakPos == 0) {
-            columnCount = sentence.length();
-            if (!language.getSentenceTokenizer().singleLineBreaksMarksPara()) {
-              columnCount--;
-            }
-          } else {
-            columnCount = sentence.length() - lineBreakPos;
-          }
+  /**
+   * Calculate the column at the end of the given sentence.
+   * @param columnCount the column at the start of the sentence
+   */
+  int getColumnCountAfter(String sentence, int columnCount) {
+    final int lineBreakPos = sentence.lastIndexOf('\n');
+    if (lineBreakPos == -1) {
+      return columnCount + sentence.length();
+    } else {
+      if (lineBreakPos == 0) {
+        if (!language.getSentenceTokenizer().singleLineBreaksMarksPara()) {
+          return sentence.length() - 1;
         }
+        return sentence.length();
+      } else {
+        return sentence.length() - lineBreakPos;
       }
-      return ruleMatches;
     }
   }
 
@@ -19,35 +19,71 @@
 package org.languagetool;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.languagetool.markup.AnnotatedText;
 import org.languagetool.rules.Rule;
 import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.patterns.PatternRule;
 
 /**
- * A variant of {@link JLanguageTool} that uses several threads for rule matching.
+ * A variant of {@link JLanguageTool} that uses several threads for sentence analysis and rule matching.
  * Use this if you want text checking to be fast and do not care about the 
  * high load that this might cause.
+ *
+ * <p>The threads are kept across calls to {@code check()}, so checking many short texts
+ * does not create new threads each time. Call {@link #shutdown()} when the instance
+ * is not needed anymore. Idle threads also terminate by themselves after a while,
+ * so instances that are not shut down don't keep threads alive forever.
  * 
  * <p><b>Thread-safety:</b> See the remarks at {@link JLanguageTool}.
  */
 public class MultiThreadedJLanguageTool extends JLanguageTool {
-  
+
+  // number of sentence ranges per thread - small ranges even out the different
+  // costs of sentences, as idle threads take the next range from the queue:
+  private static final int SENTENCE_RANGES_PER_THREAD = 4;
+  // maximum number of sentences waiting for analysis, per thread:
+  private static final int PENDING_ANALYSES_PER_THREAD = 4;
+  private static final int IDLE_THREAD_TIMEOUT_SECONDS = 60;
+
+  private final ExecutorService executorService;
+
+  private ThreadPoolExecutor ownExecutorService;  // guarded by this, only used if no executor has been given
+  private boolean shutdown;  // guarded by this
   private int threadPoolSize = -1;
+  private int analysisThreadPoolSize = -1;
+  private boolean splitBySentences;
 
   public MultiThreadedJLanguageTool(Language language) throws IOException {
-    super(language);
+    this(language, null);
   }
 
   public MultiThreadedJLanguageTool(Language language, Language motherTongue) throws IOException {
+    this(language, motherTongue, null);
+  }
+
+  /**
+   * @param executorService the executor used to run the analysis and check tasks, e.g. one
+   *   that is shared by several instances. It will not be shut down by this class. If {@code null},
+   *   an executor with {@link #getThreadPoolSize()} threads will be created when needed.
+   * @since 2.6
+   */
+  public MultiThreadedJLanguageTool(Language language, Language motherTongue, ExecutorService executorService) throws IOException {
     super(language, motherTongue);
+    this.executorService = executorService;
   }
 
   /**
@@ -65,19 +101,153 @@ public class MultiThreadedJLanguageTool extends JLanguageTool {
   }
   
   /**
-   * Set the amount of threads to use for checking.
+   * Set the amount of threads to use for checking. Has no effect on the number of threads
+   * if an executor has been passed to the constructor.
    */
   public void setThreadPoolSize(int threadPoolSize) {
     this.threadPoolSize = threadPoolSize;
+    synchronized (this) {
+      if (ownExecutorService != null) {
+        final int threads = getThreadPoolSize();
+        if (threads > ownExecutorService.getMaximumPoolSize()) {
+          ownExecutorService.setMaximumPoolSize(threads);
+          ownExecutorService.setCorePoolSize(threads);
+        } else {
+          ownExecutorService.setCorePoolSize(threads);
+          ownExecutorService.setMaximumPoolSize(threads);
+        }
+      }
+    }
+  }
+
+  /**
+   * When no analysis thread pool size is {@link #setAnalysisThreadPoolSize(int) configured},
+   * the {@link #getThreadPoolSize() thread pool size} is returned.
+   * @since 2.6
+   */
+  protected int getAnalysisThreadPoolSize() {
+    if (analysisThreadPoolSize <= 0) {
+      return getThreadPoolSize();
+    } else {
+      return analysisThreadPoolSize;
+    }
+  }
+
+  /**
+   * Set the amount of threads to use for analyzing (tokenizing, tagging, chunking and
+   * disambiguating) the sentences of a text. Use {@code 1} to analyze the sentences
+   * sequentially, {@code 0} or less to use the {@link #getThreadPoolSize() thread pool size}.
+   * The tasks run on the same executor as the rule checks, so more threads than the
+   * thread pool size only increase the number of queued sentences.
+   * @since 2.6
+   */
+  public void setAnalysisThreadPoolSize(int analysisThreadPoolSize) {
+    this.analysisThreadPoolSize = analysisThreadPoolSize;
   }
 
   /**
-   * @return a fixed size executor with the given number of threads
+   * If set to true, the text is not only split by rules but also by sentences:
+   * the sentences are divided into small ranges that are each checked against all
+   * pattern rules in a separate task. Java rules are still checked against the whole
+   * text, as some of them keep state across sentences. Use this for long texts, where
+   * splitting only by rules leaves threads idle because rules have uneven costs.
+   * The default is false.
+   * @since 2.6
    */
-  protected ExecutorService getExecutorService(int threads) {
-    return Executors.newFixedThreadPool(threads);
+  public void setSplitBySentences(boolean splitBySentences) {
+    this.splitBySentences = splitBySentences;
+  }
+
+  /**
+   * @see #setSplitBySentences(boolean)
+   * @since 2.6
+   */
+  public boolean isSplitBySentences() {
+    return splitBySentences;
+  }
+
+  /**
+   * Stop the threads used by this instance. The instance cannot be used for checking afterwards.
+   * An executor passed to the constructor is not shut down.
+   * @since 2.6
+   */
+  public synchronized void shutdown() {
+    shutdown = true;
+    if (ownExecutorService != null) {
+      ownExecutorService.shutdown();
+    }
+  }
+
+  /**
+   * @return the executor given in the constructor or a fixed size executor with
+   *   {@link #getThreadPoolSize()} threads that is re-used for all checks of this instance
+   * @since 2.6
+   */
+  protected ExecutorService getExecutorService() {
+    if (executorService != null) {
+      return executorService;
+    }
+    synchronized (this) {
+      if (shutdown) {
+        throw new IllegalStateException("This MultiThreadedJLanguageTool has been shut down");
+      }
+      if (ownExecutorService == null) {
+        final int threads = getThreadPoolSize();
+        ownExecutorService = new ThreadPoolExecutor(threads, threads, IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory());
+        ownExecutorService.allowCoreThreadTimeOut(true);
+      }
+      return ownExecutorService;
+    }
   }
   
+  @Override
+  protected List<AnalyzedSentence> analyzeSentences(final List<String> sentences, boolean lastSentenceEndsText) throws IOException {
+    final int threads = getAnalysisThreadPoolSize();
+    if (threads <= 1 || sentences.size() <= 1) {
+      return super.analyzeSentences(sentences, lastSentenceEndsText);
+    }
+    final List<AnalyzedSentence> analyzedSentences = new ArrayList<>();
+    // sentences are analyzed concurrently but collected in order; the number of
+    // sentences submitted but not collected yet is limited to keep memory usage low:
+    final Deque<Future<AnalyzedSentence>> pending = new ArrayDeque<>();
+    final int maxPending = threads * PENDING_ANALYSES_PER_THREAD;
+    final ExecutorService executorService = getExecutorService();
+    try {
+      int j = 0;
+      for (final String sentence : sentences) {
+        if (pending.size() >= maxPending) {
+          addAnalyzedSentence(analyzedSentences, pending.removeFirst().get(), ++j == sentences.size() && lastSentenceEndsText);
+        }
+        pending.add(executorService.submit(new Callable<AnalyzedSentence>() {
+          @Override
+          public AnalyzedSentence call() throws Exception {
+            return getAnalyzedSentence(sentence);
+          }
+        }));
+      }
+      while (!pending.isEmpty()) {
+        addAnalyzedSentence(analyzedSentences, pending.removeFirst().get(), ++j == sentences.size() && lastSentenceEndsText);
+      }
+    } catch (InterruptedException e) {
+      throw interrupted();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      if (e.getCause() instanceof CheckCancelledException) {
+        throw (CheckCancelledException) e.getCause();
+      }
+      throw new RuntimeException(e);
+    } finally {
+      // only non-empty if an error occurred:
+      for (Future<AnalyzedSentence> future : pending) {
+        future.cancel(true);
+      }
+    }
+    return analyzedSentences;
+  }
+
   @Override
   protected List<RuleMatch> performCheck(final List<AnalyzedSentence> analyzedSentences, final List<String> sentences,
        final List<Rule> allRules, final ParagraphHandling paraMode, 
@@ -89,7 +259,7 @@ public class MultiThreadedJLanguageTool extends JLanguageTool {
     final List<RuleMatch> ruleMatches = new ArrayList<>();
     final int threads = getThreadPoolSize();
     
-    final ExecutorService executorService = getExecutorService(threads);
+    final ExecutorService executorService = getExecutorService();
     try {
       final List<Callable<List<RuleMatch>>> callables =
               createTextCheckCallables(paraMode, annotatedText, analyzedSentences, sentences, allRules, charCount, lineCount, columnCount, threads);
@@ -97,18 +267,101 @@ public class MultiThreadedJLanguageTool extends JLanguageTool {
       for (Future<List<RuleMatch>> future : futures) {
         ruleMatches.addAll(future.get());
       }
-    } catch (InterruptedException | ExecutionException e) {
+    } catch (InterruptedException e) {
+      throw interrupted();
+    } catch (ExecutionException e) {
+      // the other callables see the cancellation, too, so they have stopped already:
+      if (e.getCause() instanceof CheckCancelledException) {
+        throw (CheckCancelledException) e.getCause();
+      }
       throw new RuntimeException(e);
-    } finally {
-      executorService.shutdownNow();
     }
     
     return ruleMatches;
   }
 
+  @Override
+  List<List<RuleMatch>> matchSentences(final List<AnalyzedSentence> analyzedSentences, final List<String> sentences,
+                                       List<Rule> rules) throws IOException {
+    final int threads = Math.min(getThreadPoolSize(), rules.size());
+    if (threads <= 1) {
+      return super.matchSentences(analyzedSentences, sentences, rules);
+    }
+    // the rules are split like in createRuleCallables(), so rules that keep state still see all sentences in order:
+    final List<Callable<List<List<RuleMatch>>>> callables = new ArrayList<>();
+    final int chunkSize = rules.size() / threads;
+    for (int i = 0; i < threads; i++) {
+      final List<Rule> subRules = rules.subList(i * chunkSize, i == threads - 1 ? rules.size() : (i + 1) * chunkSize);
+      callables.add(new Callable<List<List<RuleMatch>>>() {
+        @Override
+        public List<List<RuleMatch>> call() throws Exception {
+          return MultiThreadedJLanguageTool.super.matchSentences(analyzedSentences, sentences, subRules);
+        }
+      });
+    }
+    final List<List<RuleMatch>> matches = new ArrayList<>(sentences.size());
+    for (int i = 0; i < sentences.size(); i++) {
+      matches.add(new ArrayList<RuleMatch>());
+    }
+    try {
+      // the chunks are in the order of the rules, so the matches of each sentence are, too:
+      for (Future<List<List<RuleMatch>>> future : getExecutorService().invokeAll(callables)) {
+        final List<List<RuleMatch>> chunkMatches = future.get();
+        for (int i = 0; i < sentences.size(); i++) {
+          matches.get(i).addAll(chunkMatches.get(i));
+        }
+      }
+    } catch (InterruptedException e) {
+      throw interrupted();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      if (e.getCause() instanceof CheckCancelledException) {
+        throw (CheckCancelledException) e.getCause();
+      }
+      throw new RuntimeException(e);
+    }
+    return matches;
+  }
+
+  // the tasks that are still running get cancelled, the caller may need the interrupted status:
+  private CheckCancelledException interrupted() {
+    Thread.currentThread().interrupt();
+    return new CheckCancelledException("Checking thread has been interrupted");
+  }
+
   private List<Callable<List<RuleMatch>>> createTextCheckCallables(ParagraphHandling paraMode,
        AnnotatedText annotatedText, List<AnalyzedSentence> analyzedSentences, List<String> sentences, 
        List<Rule> allRules, int charCount, int lineCount, int columnCount, int threads) {
+    if (splitBySentences && sentences.size() > 1) {
+      final List<Rule> sentenceRules = new ArrayList<>();
+      final List<Rule> textRules = new ArrayList<>();
+      for (Rule rule : allRules) {
+        // pattern rules only look at one sentence at a time and keep no state:
+        if (rule instanceof PatternRule && !rule.isParagraphBackTrack()) {
+          sentenceRules.add(rule);
+        } else {
+          textRules.add(rule);
+        }
+      }
+      final List<Callable<List<RuleMatch>>> callables = new ArrayList<>();
+      if (textRules.size() > 0) {
+        callables.addAll(createRuleCallables(paraMode, annotatedText, analyzedSentences, sentences, textRules,
+                charCount, lineCount, columnCount, Math.min(threads, textRules.size())));
+      }
+      if (sentenceRules.size() > 0) {
+        callables.addAll(createSentenceCallables(paraMode, annotatedText, analyzedSentences, sentences, sentenceRules,
+                charCount, lineCount, columnCount, threads * SENTENCE_RANGES_PER_THREAD));
+      }
+      return callables;
+    }
+    return createRuleCallables(paraMode, annotatedText, analyzedSentences, sentences, allRules, charCount, lineCount, columnCount, threads);
+  }
+
+  private List<Callable<List<RuleMatch>>> createRuleCallables(ParagraphHandling paraMode,
+       AnnotatedText annotatedText, List<AnalyzedSentence> analyzedSentences, List<String> sentences,
+       List<Rule> allRules, int charCount, int lineCount, int columnCount, int threads) {
     final int totalRules = allRules.size();
     final int chunkSize = totalRules / threads;
     int firstItem = 0;
@@ -129,4 +382,36 @@ public class MultiThreadedJLanguageTool extends JLanguageTool {
     }
     return callables;
   }
+
+  private List<Callable<List<RuleMatch>>> createSentenceCallables(ParagraphHandling paraMode,
+       AnnotatedText annotatedText, List<AnalyzedSentence> analyzedSentences, List<String> sentences,
+       List<Rule> rules, int charCount, int lineCount, int columnCount, int maxRanges) {
+    final int totalSentences = sentences.size();
+    final int ranges = Math.min(totalSentences, maxRanges);
+    final int rangeSize = (totalSentences + ranges - 1) / ranges;
+    final List<Callable<List<RuleMatch>>> callables = new ArrayList<>();
+    for (int from = 0; from < totalSentences; from += rangeSize) {
+      final int to = Math.min(from + rangeSize, totalSentences);
+      callables.add(new TextCheckCallable(rules, sentences.subList(from, to), analyzedSentences.subList(from, to),
+              paraMode, annotatedText, charCount, lineCount, columnCount));
+      // the positions where the next range starts:
+      for (String sentence : sentences.subList(from, to)) {
+        charCount += sentence.length();
+        lineCount += countLineBreaks(sentence);
+        columnCount = getColumnCountAfter(sentence, columnCount);
+      }
+    }
+    return callables;
+  }
+
+  private static class DaemonThreadFactory implements ThreadFactory {
+    private final AtomicInteger threadCount = new AtomicInteger();
+    @Override
+    public Thread newThread(Runnable r) {
+      final Thread thread = new Thread(r, "lt-worker-" + threadCount.incrementAndGet());
+      // don't keep the JVM alive just because shutdown() has not been called:
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
 }
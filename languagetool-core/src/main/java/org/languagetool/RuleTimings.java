@@ -0,0 +1,146 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.languagetool.rules.Rule;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The time the rules of a {@link JLanguageTool} need to match a sentence. To keep the
+ * overhead low enough to always measure, only every {@link #SAMPLE_INTERVAL}th sentence
+ * is timed. The counters are striped by thread, so threads checking at the same time
+ * don't contend for them. Thread-safe.
+ * @see JLanguageTool#getRuleTimings()
+ * @since 2.6
+ */
+public class RuleTimings {
+
+  /** Only one of this many sentences is timed. */
+  public static final int SAMPLE_INTERVAL = 16;
+
+  // a power of two, so the stripe can be selected with a bit mask:
+  private static final int STRIPES = 8;
+  // each stripe uses its own cache line of 64 bytes, so updating one stripe doesn't slow down the others:
+  private static final int PADDING = 8;
+  // weight of a new sample in the recent time of a rule, as 1/RECENT_WEIGHT:
+  private static final int RECENT_WEIGHT = 4;
+
+  private final ConcurrentMap<Rule, Counters> counters = new ConcurrentHashMap<>();
+
+  // not thread-safe on purpose, concurrent updates only make the sampling a bit less regular:
+  private int sentenceCount;
+
+  /**
+   * Whether the rules should be timed for the next sentence.
+   */
+  boolean sampleNextSentence() {
+    return ++sentenceCount % SAMPLE_INTERVAL == 0;
+  }
+
+  /**
+   * Add the time {@code rule} needed to match a sampled sentence.
+   */
+  void add(Rule rule, long nanos) {
+    Counters ruleCounters = counters.get(rule);
+    if (ruleCounters == null) {
+      final Counters newCounters = new Counters();
+      ruleCounters = counters.putIfAbsent(rule, newCounters);
+      if (ruleCounters == null) {
+        ruleCounters = newCounters;
+      }
+    }
+    final int stripe = ((int) Thread.currentThread().getId() & (STRIPES - 1)) * PADDING;
+    ruleCounters.nanos.addAndGet(stripe, nanos);
+    ruleCounters.samples.incrementAndGet(stripe);
+    // not thread-safe on purpose, a concurrent sample getting lost doesn't matter:
+    final long recent = ruleCounters.recentNanos;
+    ruleCounters.recentNanos = recent < 0 ? nanos : recent + (nanos - recent) / RECENT_WEIGHT;
+  }
+
+  /**
+   * Number of sentences for which the time of the rule has been measured.
+   */
+  public long getSampleCount(Rule rule) {
+    final Counters ruleCounters = counters.get(rule);
+    return ruleCounters == null ? 0 : sum(ruleCounters.samples);
+  }
+
+  /**
+   * The average time the rule needed to match a sentence, in nanoseconds, or {@code 0}
+   * if it has not been measured yet.
+   */
+  public long getAverageNanos(Rule rule) {
+    final Counters ruleCounters = counters.get(rule);
+    if (ruleCounters == null) {
+      return 0;
+    }
+    final long samples = sum(ruleCounters.samples);
+    return samples == 0 ? 0 : sum(ruleCounters.nanos) / samples;
+  }
+
+  /**
+   * The time the rule needed for the latest sampled sentences, in nanoseconds, with the
+   * older samples counting less and less. {@code -1} if it has not been measured yet.
+   */
+  long getRecentNanos(Rule rule) {
+    final Counters ruleCounters = counters.get(rule);
+    return ruleCounters == null ? -1 : ruleCounters.recentNanos;
+  }
+
+  /**
+   * The rules that have been measured for at least {@code minSamples} sentences and
+   * recently needed more than {@code nanos} per sentence, see {@link #getRecentNanos(Rule)}.
+   * Unlike the average, the recent time goes down quickly once a rule gets faster.
+   */
+  Set<Rule> getRulesSlowerThan(long nanos, int minSamples) {
+    Set<Rule> slowRules = Collections.emptySet();
+    for (Map.Entry<Rule, Counters> entry : counters.entrySet()) {
+      final long samples = sum(entry.getValue().samples);
+      if (samples >= minSamples && entry.getValue().recentNanos > nanos) {
+        if (slowRules.isEmpty()) {
+          slowRules = Collections.newSetFromMap(new IdentityHashMap<Rule, Boolean>());
+        }
+        slowRules.add(entry.getKey());
+      }
+    }
+    return slowRules;
+  }
+
+  private static long sum(AtomicLongArray stripes) {
+    long sum = 0;
+    for (int i = 0; i < stripes.length(); i += PADDING) {
+      sum += stripes.get(i);
+    }
+    return sum;
+  }
+
+  private static class Counters {
+    private final AtomicLongArray nanos = new AtomicLongArray(STRIPES * PADDING);
+    private final AtomicLongArray samples = new AtomicLongArray(STRIPES * PADDING);
+    private volatile long recentNanos = -1;
+  }
+
+}
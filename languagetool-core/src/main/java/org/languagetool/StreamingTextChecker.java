@@ -0,0 +1,158 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.RuleMatch;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Checks a text read from a {@link Reader} in windows of sentences, so that only the
+ * sentences of the current window are kept in memory. Rules keep their state from
+ * window to window, like for a text checked at once. The matches of paragraph-level
+ * rules may be removed again later in the paragraph, so a window normally ends with a
+ * paragraph and its matches are passed on after it has been checked. A paragraph that
+ * doesn't fit into one window is cut, so that no more than one window of matches is
+ * kept in memory; a match of a paragraph-level rule that is removed after the cut has
+ * been passed on already then.
+ * @see JLanguageTool#check(Reader, RuleMatchListener)
+ * @since 2.6
+ */
+class StreamingTextChecker {
+
+  private static final int READ_BUFFER_SIZE = 8192;
+  // a window is checked once it has this many sentences and its last sentence ends a paragraph...
+  static final int MIN_WINDOW_SENTENCES = 50;
+  // ...or in any case once it has this many sentences, cutting the paragraph:
+  static final int MAX_WINDOW_SENTENCES = 500;
+  // text without a sentence boundary is checked as one sentence once it's this long, to limit memory usage:
+  private static final int MAX_SENTENCE_LENGTH = 100_000;
+
+  private final JLanguageTool languageTool;
+  private final List<Rule> rules;
+  private final RuleMatchListener listener;
+  private final int paragraphLineBreaks;
+  private final List<String> window = new ArrayList<>();
+
+  // the position where the current window starts:
+  private int charCount;
+  private int lineCount;
+  private int columnCount = 1;
+  private int sentenceCount;
+
+  StreamingTextChecker(JLanguageTool languageTool, List<Rule> rules, RuleMatchListener listener) {
+    this.languageTool = languageTool;
+    this.rules = rules;
+    this.listener = listener;
+    this.paragraphLineBreaks = languageTool.getLanguage().getSentenceTokenizer().singleLineBreaksMarksPara() ? 1 : 2;
+  }
+
+  /**
+   * Check the complete text of the reader, but don't close it.
+   * @return the number of sentences checked
+   */
+  int check(Reader reader) throws IOException {
+    final StringBuilder buffer = new StringBuilder();
+    final char[] chars = new char[READ_BUFFER_SIZE];
+    int length;
+    while ((length = reader.read(chars)) != -1) {
+      buffer.append(chars, 0, length);
+      final List<String> sentences = languageTool.sentenceTokenize(buffer.toString());
+      // the last sentence might continue, so only the sentences before are complete:
+      final int completeSentences = buffer.length() > MAX_SENTENCE_LENGTH ? sentences.size() : sentences.size() - 1;
+      int completeLength = 0;
+      for (int i = 0; i < completeSentences; i++) {
+        addSentence(sentences.get(i));
+        completeLength += sentences.get(i).length();
+      }
+      buffer.delete(0, completeLength);
+    }
+    if (buffer.length() > 0) {
+      for (String sentence : languageTool.sentenceTokenize(buffer.toString())) {
+        window.add(sentence);
+      }
+    }
+    checkWindow(true);
+    return sentenceCount;
+  }
+
+  private void addSentence(String sentence) throws IOException {
+    window.add(sentence);
+    if (window.size() >= MAX_WINDOW_SENTENCES || (window.size() >= MIN_WINDOW_SENTENCES && endsParagraph(sentence))) {
+      checkWindow(false);
+    }
+  }
+
+  private void checkWindow(boolean endOfText) throws IOException {
+    if (window.isEmpty()) {
+      return;
+    }
+    final List<AnalyzedSentence> analyzedSentences = new ArrayList<>();
+    for (int i = 0; i < window.size(); i++) {
+      // like for a text checked at once, only the end of the text is marked as a paragraph end:
+      languageTool.addAnalyzedSentence(analyzedSentences, languageTool.getAnalyzedSentence(window.get(i)),
+              endOfText && i == window.size() - 1);
+    }
+    final List<RuleMatch> matches = languageTool.performCheck(analyzedSentences, window, rules,
+            JLanguageTool.ParagraphHandling.NORMAL, null);
+    Collections.sort(matches);
+    // the window ends a paragraph or the paragraph gets cut here, either way its matches can be passed on:
+    for (RuleMatch match : matches) {
+      final Rule rule = match.getRule();
+      if (!rule.isParagraphBackTrack() || !rule.isInRemoved(match)) {
+        // the matches are relative to the window:
+        listener.matchFound(match.copyWithPosition(match.getFromPos() + charCount,
+                match.getToPos() + charCount, lineCount, columnCount));
+      }
+    }
+    if (endOfText || endsParagraph(window.get(window.size() - 1))) {
+      // paragraph-level rules don't need to remember the matches of a completed paragraph anymore. After
+      // a cut they still do, as they refer to them by index when a later sentence removes one of them:
+      for (Rule rule : rules) {
+        if (rule.isParagraphBackTrack()) {
+          rule.clearMatches();
+        }
+      }
+    }
+
+    for (String sentence : window) {
+      charCount += sentence.length();
+      lineCount += JLanguageTool.countLineBreaks(sentence);
+      columnCount = languageTool.getColumnCountAfter(sentence, columnCount);
+    }
+    sentenceCount += window.size();
+    window.clear();
+  }
+
+  private boolean endsParagraph(String sentence) {
+    int lineBreaks = 0;
+    for (int i = sentence.length() - 1; i >= 0 && (sentence.charAt(i) == '\n' || sentence.charAt(i) == '\r'); i--) {
+      if (sentence.charAt(i) == '\n') {
+        lineBreaks++;
+      }
+    }
+    return lineBreaks >= paragraphLineBreaks;
+  }
+
+}
@@ -21,6 +21,7 @@ package org.languagetool.rules;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -30,6 +31,8 @@ import java.util.ResourceBundle;
 import java.util.Scanner;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.languagetool.AnalyzedSentence;
 import org.languagetool.AnalyzedToken;
@@ -47,9 +50,12 @@ public abstract class AbstractCompoundRule extends Rule {
 
   private static final int MAX_TERMS = 5;
 
-  private final Set<String> incorrectCompounds = new HashSet<>();
-  private final Set<String> noDashSuggestion = new HashSet<>();
-  private final Set<String> onlyDashSuggestion = new HashSet<>();
+  // the compound lists are never modified after loading, so all rule instances in this JVM share them:
+  private static final ConcurrentMap<String, CompoundData> compoundCache = new ConcurrentHashMap<>();
+
+  private final Set<String> incorrectCompounds;
+  private final Set<String> noDashSuggestion;
+  private final Set<String> onlyDashSuggestion;
 
   private final String withHyphenMessage;
   private final String withoutHyphenMessage;
@@ -69,7 +75,10 @@ public abstract class AbstractCompoundRule extends Rule {
     if (messages != null) {
       super.setCategory(new Category(messages.getString("category_misc")));
     }
-    loadCompoundFile(JLanguageTool.getDataBroker().getFromResourceDirAsStream(fileName), "UTF-8");
+    final CompoundData compoundData = getCompoundData(fileName);
+    incorrectCompounds = compoundData.incorrectCompounds;
+    noDashSuggestion = compoundData.noDashSuggestion;
+    onlyDashSuggestion = compoundData.onlyDashSuggestion;
     this.withHyphenMessage = withHyphenMessage;
     this.withoutHyphenMessage = withoutHyphenMessage;
     this.withOrWithoutHyphenMessage = withOrWithoutHyphenMessage;
@@ -226,7 +235,23 @@ public abstract class AbstractCompoundRule extends Rule {
     }
   }
 
-  private void loadCompoundFile(final InputStream file, final String encoding) throws IOException {
+  private static CompoundData getCompoundData(final String fileName) throws IOException {
+    final String key = JLanguageTool.getDataBroker().getResourceDir() + "/" + fileName;
+    CompoundData compoundData = compoundCache.get(key);
+    if (compoundData == null) {
+      compoundData = loadCompoundFile(JLanguageTool.getDataBroker().getFromResourceDirAsStream(fileName), "UTF-8");
+      final CompoundData previousData = compoundCache.putIfAbsent(key, compoundData);
+      if (previousData != null) {
+        compoundData = previousData;
+      }
+    }
+    return compoundData;
+  }
+
+  private static CompoundData loadCompoundFile(final InputStream file, final String encoding) throws IOException {
+    final Set<String> incorrectCompounds = new HashSet<>();
+    final Set<String> noDashSuggestion = new HashSet<>();
+    final Set<String> onlyDashSuggestion = new HashSet<>();
     try (Scanner scanner = new Scanner(file, encoding)) {
       while (scanner.hasNextLine()) {
         String line = scanner.nextLine().trim();
@@ -252,12 +277,24 @@ public abstract class AbstractCompoundRule extends Rule {
         incorrectCompounds.add(line.toLowerCase());
       }
     }
+    return new CompoundData(incorrectCompounds, noDashSuggestion, onlyDashSuggestion);
   }
 
-  private String removeLastCharacter(String str) {
+  private static String removeLastCharacter(String str) {
     return str.substring(0, str.length() - 1);
   }
 
+  private static class CompoundData {
+    private final Set<String> incorrectCompounds;
+    private final Set<String> noDashSuggestion;
+    private final Set<String> onlyDashSuggestion;
+    CompoundData(Set<String> incorrectCompounds, Set<String> noDashSuggestion, Set<String> onlyDashSuggestion) {
+      this.incorrectCompounds = Collections.unmodifiableSet(incorrectCompounds);
+      this.noDashSuggestion = Collections.unmodifiableSet(noDashSuggestion);
+      this.onlyDashSuggestion = Collections.unmodifiableSet(onlyDashSuggestion);
+    }
+  }
+
   @Override
   public void reset() {
   }
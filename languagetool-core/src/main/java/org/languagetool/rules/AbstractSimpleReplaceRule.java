@@ -22,12 +22,15 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.languagetool.AnalyzedSentence;
@@ -47,6 +50,9 @@ public abstract class AbstractSimpleReplaceRule extends Rule {
 
   private static final String FILE_ENCODING = "utf-8";
 
+  // the word lists are never modified after loading, so all rule instances in this JVM share them:
+  private static final ConcurrentMap<String, Map<String, List<String>>> wordsCache = new ConcurrentHashMap<>();
+
   private final Map<String, List<String>> wrongWords;
 
   private boolean ignoreTaggedWords = false;
@@ -89,8 +95,20 @@ public abstract class AbstractSimpleReplaceRule extends Rule {
     if (messages != null) {
       super.setCategory(new Category(messages.getString("category_misc")));
     }
-    wrongWords = loadWords(JLanguageTool.getDataBroker()
-        .getFromRulesDirAsStream(getFileName()));
+    wrongWords = getWords();
+  }
+
+  private Map<String, List<String>> getWords() throws IOException {
+    final String key = JLanguageTool.getDataBroker().getRulesDir() + "/" + getFileName() + "/" + getEncoding();
+    Map<String, List<String>> words = wordsCache.get(key);
+    if (words == null) {
+      words = loadWords(JLanguageTool.getDataBroker().getFromRulesDirAsStream(getFileName()));
+      final Map<String, List<String>> previousWords = wordsCache.putIfAbsent(key, words);
+      if (previousWords != null) {
+        words = previousWords;
+      }
+    }
+    return words;
   }
 
   @Override
@@ -212,11 +230,11 @@ public abstract class AbstractSimpleReplaceRule extends Rule {
         // multiple incorrect forms
         final String[] wrongForms = parts[0].split("\\|");
         for (String wrongForm : wrongForms) {
-          map.put(wrongForm, Arrays.asList(replacements));
+          map.put(wrongForm, Collections.unmodifiableList(Arrays.asList(replacements)));
         }
       }
     }
-    return map;
+    return Collections.unmodifiableMap(map);
   }
 
   /**
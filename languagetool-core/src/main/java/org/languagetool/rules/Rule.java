@@ -215,10 +215,16 @@ public abstract class Rule {
     return previousMatches.size() > index && previousMatches.get(index) != null;
   }
 
+  /**
+   * Forget the matches added with {@link #addRuleMatch(RuleMatch)}, and which of them have been deleted.
+   */
   public final void clearMatches() {
     if (previousMatches != null) {
       previousMatches.clear();
     }
+    if (removedMatches != null) {
+      removedMatches.clear();
+    }
   }
 
   public final int getMatchesIndex() {
@@ -18,6 +18,7 @@
  */
 package org.languagetool.rules;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -29,6 +30,7 @@ import org.languagetool.tools.StringTools;
 /**
  * Information about an error rule that matches text and the position of the match.
  * See {@link org.languagetool.tools.ContextTools} for displaying errors in their original text context.
+ * The suggested replacements may be computed lazily, see {@link #setLazySuggestedReplacements(SuggestionSupplier)}.
  * 
  * @author Daniel Naber
  */
@@ -49,6 +51,8 @@ public class RuleMatch implements Comparable<RuleMatch> {
   private final String shortMessage;   // for OOo/LO context menu
 
   private List<String> suggestedReplacements = new ArrayList<>();
+  // computes the suggested replacements on first access, if not null:
+  private SuggestionSupplier suggestionSupplier;
 
   /**
    * Creates a RuleMatch object, taking the rule that triggered
@@ -221,8 +225,64 @@ public class RuleMatch implements Comparable<RuleMatch> {
   /**
    * @see #getSuggestedReplacements()
    */
-  public void setSuggestedReplacements(final List<String> replacements) {
+  public synchronized void setSuggestedReplacements(final List<String> replacements) {
     this.suggestedReplacements = Objects.requireNonNull(replacements, "replacements may be empty but not null");
+    this.suggestionSupplier = null;
+  }
+
+  /**
+   * Set the suggested replacements to be computed by {@code supplier} when they are
+   * first asked for with {@link #getSuggestedReplacements()}. Use this for suggestions
+   * that are expensive to compute, as many callers never use them.
+   * @since 2.6
+   */
+  public synchronized void setLazySuggestedReplacements(final SuggestionSupplier supplier) {
+    this.suggestionSupplier = Objects.requireNonNull(supplier);
+  }
+
+  /**
+   * Use the suggested replacements of {@code match}. If those are computed lazily and
+   * haven't been asked for yet, they are only computed when they are asked for here
+   * or at {@code match}, and only once.
+   * @since 2.6
+   */
+  public void copySuggestedReplacementsFrom(final RuleMatch match) {
+    final boolean lazy;
+    synchronized (match) {
+      lazy = match.suggestionSupplier != null;
+    }
+    if (lazy) {
+      setLazySuggestedReplacements(new SuggestionSupplier() {
+        @Override
+        public List<String> getSuggestions() {
+          return match.getSuggestedReplacements();
+        }
+      });
+    } else {
+      setSuggestedReplacements(match.getSuggestedReplacements());
+    }
+  }
+
+  /**
+   * A copy of this match, for a match that has been found in a part of a larger text and
+   * whose position is relative to that part. The suggested replacements are shared like
+   * with {@link #copySuggestedReplacementsFrom(RuleMatch)}.
+   * @param fromPos the start position in the larger text, the offset is moved by the same amount
+   * @param toPos the end position in the larger text
+   * @param lineCount the line of the larger text in which the part starts (0-based)
+   * @param columnCount the column in which the part starts (1-based), only needed for the
+   *                    columns of the first line, as the other lines start at column 1 anyway
+   * @since 2.6
+   */
+  public RuleMatch copyWithPosition(int fromPos, int toPos, int lineCount, int columnCount) {
+    final RuleMatch copy = new RuleMatch(rule, fromPos, toPos, message, shortMessage);
+    copy.copySuggestedReplacementsFrom(this);
+    copy.setOffset(offset + fromPos - this.fromPos);
+    copy.setLine(fromLine + lineCount);
+    copy.setEndLine(endLine + lineCount);
+    copy.setColumn(fromLine == 0 ? column + columnCount - 1 : column);
+    copy.setEndColumn(endLine == 0 ? endColumn + columnCount - 1 : endColumn);
+    return copy;
   }
 
   /**
@@ -231,7 +291,16 @@ public class RuleMatch implements Comparable<RuleMatch> {
    * to {@link #getToPos()}.
    * @return List of String objects or an empty List
    */
-  public List<String> getSuggestedReplacements() {
+  public synchronized List<String> getSuggestedReplacements() {
+    if (suggestionSupplier != null) {
+      try {
+        suggestedReplacements = Objects.requireNonNull(suggestionSupplier.getSuggestions(),
+                "suggestions may be empty but not null");
+      } catch (IOException e) {
+        throw new RuntimeException("Could not compute suggestions for " + this, e);
+      }
+      suggestionSupplier = null;
+    }
     return suggestedReplacements;
   }
 
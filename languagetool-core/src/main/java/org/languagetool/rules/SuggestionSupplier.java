@@ -0,0 +1,38 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Computes the suggested replacements of a match when they are first asked for,
+ * so rules don't need to compute expensive suggestions for matches whose suggestions
+ * are never used. May be called from another thread than the one that created the match.
+ * @see RuleMatch#setLazySuggestedReplacements(SuggestionSupplier)
+ * @since 2.6
+ */
+public interface SuggestionSupplier {
+
+  /**
+   * @return the suggestions, may be empty but not null
+   */
+  List<String> getSuggestions() throws IOException;
+
+}
@@ -21,13 +21,16 @@ package org.languagetool.rules.patterns;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 import org.languagetool.AnalyzedSentence;
 import org.languagetool.Language;
 import org.languagetool.rules.Rule;
 import org.languagetool.rules.RuleMatch;
+import org.languagetool.tools.StringTools;
 
 /**
  * An Abstract Pattern Rule that describes a pattern of words or part-of-speech tags 
@@ -52,6 +55,10 @@ public abstract class AbstractPatternRule extends Rule {
   private final String description;
   private final boolean getUnified;
 
+  // Tokens used for fast checking whether a rule can ever match.
+  private final Set<String> simpleRuleTokens;
+  private final Set<String> inflectedRuleTokens;
+
   private boolean groupsOrUnification;
 
   public AbstractPatternRule(final String id, 
@@ -66,6 +73,9 @@ public abstract class AbstractPatternRule extends Rule {
     this.getUnified = getUnified;
     testUnification = initUnifier();
     sentStart = patternElements.size() > 0 && patternElements.get(0).isSentenceStart();    
+    //don't instantiate a hash for every sentence, simply store it:
+    simpleRuleTokens = initRuleTokens(false);
+    inflectedRuleTokens = initRuleTokens(true);
     if (!testUnification) {
       for (Element elem : patternElements) {
         if (elem.hasAndGroup()) {
@@ -87,6 +97,21 @@ public abstract class AbstractPatternRule extends Rule {
     return false;
   }
 
+  // tokens that just refer to a word or lemma - no regex etc.
+  private Set<String> initRuleTokens(boolean inflected) {
+    final Set<String> ruleTokens = new HashSet<>();
+    for (Element element : patternElements) {
+      if (!element.getNegation() && !element.isRegularExpression()
+              && !element.isReferenceElement() && element.isInflected() == inflected && element.getMinOccurrence() > 0) {
+        final String str = element.getString();
+        if (!StringTools.isEmpty(str)) {
+          ruleTokens.add(str.toLowerCase());
+        }
+      }
+    }
+    return ruleTokens;
+  }
+
   @Override
   public String toString() {
     return id + "[" + subId + "]:" + patternElements + ":" + description;
@@ -111,6 +136,26 @@ public abstract class AbstractPatternRule extends Rule {
   public void reset() {
   }
 
+  /**
+   * A fast check whether this rule can be ignored for the given sentence
+   * because it can never match. Used internally for performance optimization.
+   * @since 2.4 (in {@link PatternRule}), 2.6 (in AbstractPatternRule)
+   */
+  public boolean canBeIgnoredFor(AnalyzedSentence sentence) {
+    return (!simpleRuleTokens.isEmpty() && !sentence.getTokenSet().containsAll(simpleRuleTokens))
+            || (!inflectedRuleTokens.isEmpty() && !sentence.getLemmaSet().containsAll(inflectedRuleTokens));
+  }
+
+  // non-private for PatternRuleIndex
+  Set<String> getSimpleTokens() {
+    return simpleRuleTokens;
+  }
+
+  // non-private for PatternRuleIndex
+  Set<String> getInflectedTokens() {
+    return inflectedRuleTokens;
+  }
+
   /**
    * @since 2.3
    */
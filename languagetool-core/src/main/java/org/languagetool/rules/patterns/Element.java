@@ -22,8 +22,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.languagetool.AnalyzedToken;
 import org.languagetool.AnalyzedTokenReadings;
@@ -42,9 +40,6 @@ public class Element implements Cloneable {
   /** Matches only tokens without any POS tag. **/
   public static final String UNKNOWN_TAG = "UNKNOWN";
 
-  /** Parameter passed to regular expression matcher to enable case insensitive Unicode matching. */
-  private static final String CASE_INSENSITIVE = "(?iu)";
-
   private final boolean caseSensitive;
   private final boolean stringRegExp;
 
@@ -82,8 +77,8 @@ public class Element implements Cloneable {
   private int minOccurrence = 1;
   private int maxOccurrence = 1;
 
-  private Pattern p;
-  private Pattern pPos;
+  private StringMatcher stringMatcher;
+  private StringMatcher posMatcher;
 
   /** The reference to another element in the pattern. **/
   private Match tokenReference;
@@ -153,6 +148,33 @@ public class Element implements Cloneable {
     return matched;
   }
 
+  /**
+   * A key that is equal for all elements for which {@link #isMatched(AnalyzedToken)}
+   * gives the same result for any token, or {@code null} if the result depends on
+   * other tokens of the sentence. Exceptions are not considered.
+   */
+  String getMatchKey() {
+    if (isReferenceElement() || testString && stringRegExp && stringMatcher == null) {
+      return null;
+    }
+    final StringBuilder sb = new StringBuilder();
+    if (testWhitespace) {
+      sb.append(whitespaceBefore ? "ws:" : "nows:");
+    }
+    if (testString) {
+      // the length avoids ambiguities with the POS tag part:
+      sb.append(negation ? "!" : "").append(caseSensitive ? "cs:" : "ci:").append(stringRegExp ? "re:" : "")
+        .append(inflected ? "lemma:" : "").append(stringToken.length()).append(':').append(stringToken);
+    } else if (negation) {
+      // never matches:
+      sb.append('!');
+    }
+    if (posToken != null) {
+      sb.append("/pos:").append(posNegation ? "!" : "").append(posRegExp ? "re:" : "").append(posToken);
+    }
+    return sb.toString();
+  }
+
   /**
    * Checks whether an exception matches.
    * @param token AnalyzedToken to check matching against
@@ -336,9 +358,9 @@ public class Element implements Cloneable {
     this.posNegation = negation;
     posRegExp = regExp;
     if (posRegExp) {
-      pPos = Pattern.compile(posToken);
-      final Matcher mPos = pPos.matcher(UNKNOWN_TAG);
-      posUnknown = mPos.matches();
+      // there are only a few distinct POS tags, so results are memoized:
+      posMatcher = StringMatcher.create(posToken, true, true);
+      posUnknown = posMatcher.matches(UNKNOWN_TAG);
     } else {
       posUnknown = UNKNOWN_TAG.equals(posToken);
     }
@@ -359,12 +381,8 @@ public class Element implements Cloneable {
     stringToken = token;
     testString = !StringTools.isEmpty(stringToken);
     if (testString && stringRegExp) {
-      String regToken = stringToken;
-      if (!caseSensitive) {
-        regToken = CASE_INSENSITIVE + stringToken;
-      }
       if (!"\\0".equals(token)) {
-        p = Pattern.compile(regToken);
+        stringMatcher = StringMatcher.create(stringToken, caseSensitive, false);
       }
     }
   }
@@ -456,8 +474,7 @@ public class Element implements Cloneable {
     }
     boolean match;
     if (posRegExp) {
-      final Matcher mPos = pPos.matcher(token.getPOSTag());
-      match = mPos.matches();
+      match = posMatcher.matches(token.getPOSTag());
     } else {
       match = posToken.equals(token.getPOSTag());
     }
@@ -475,8 +492,7 @@ public class Element implements Cloneable {
   boolean isStringTokenMatched(final AnalyzedToken token) {
     final String testToken = getTestToken(token);
     if (stringRegExp) {
-      final Matcher m = p.matcher(testToken);
-      return m.matches();
+      return stringMatcher.matches(testToken);
     }
     if (caseSensitive) {
       return stringToken.equals(testToken);
@@ -616,7 +632,7 @@ public class Element implements Cloneable {
   }
 
   void doCompile(final AnalyzedTokenReadings token, final Synthesizer synth) throws IOException {
-    p = null;
+    stringMatcher = null;
     final MatchState matchState = tokenReference.createState(synth, token);
 
     if (StringTools.isEmpty(referenceString)) {
@@ -37,6 +37,8 @@ public class ElementMatcher {
   private Element element;
   private List<ElementMatcher> andGroup;
   private boolean[] andGroupCheck;
+  // the token that element has been compiled for, to avoid compiling again for the same token:
+  private AnalyzedTokenReadings referenceToken;
 
   public ElementMatcher(Element element) {
     baseElement = element;
@@ -56,6 +58,20 @@ public class ElementMatcher {
     }
   }
 
+  /**
+   * Reset the state from previous matches, so this matcher can be re-used for another sentence.
+   * @since 2.6
+   */
+  public void reset() {
+    element = baseElement;
+    referenceToken = null;
+    if (andGroup != null) {
+      for (ElementMatcher andMatcher : andGroup) {
+        andMatcher.reset();
+      }
+    }
+  }
+
   // TODO: add .compile for all exceptions of the element?
   public void resolveReference(final int firstMatchToken,
       final AnalyzedTokenReadings[] tokens, Language language)
@@ -63,9 +79,10 @@ public class ElementMatcher {
     if (baseElement.isReferenceElement()) {
       final int refPos = firstMatchToken
           + baseElement.getMatch().getTokenRef();
-      if (refPos < tokens.length) {
+      if (refPos < tokens.length && tokens[refPos] != referenceToken) {
         element = baseElement.compile(tokens[refPos],
             language.getSynthesizer());
+        referenceToken = tokens[refPos];
       }
     }
   }
@@ -93,8 +110,12 @@ public class ElementMatcher {
       for (ElementMatcher andMatcher : andGroup) {
         andMatcher.resolveReference(firstMatchToken, tokens, language);
       }
-      andGroupCheck = new boolean[element.getAndGroup().size() + 1];
-      Arrays.fill(andGroupCheck, false);
+      final int size = element.getAndGroup().size() + 1;
+      if (andGroupCheck == null || andGroupCheck.length != size) {
+        andGroupCheck = new boolean[size];
+      } else {
+        Arrays.fill(andGroupCheck, false);
+      }
     }
   }
 
@@ -20,6 +20,8 @@ package org.languagetool.rules.patterns;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.commons.lang.ObjectUtils;
 import org.languagetool.AnalyzedSentence;
@@ -36,16 +38,14 @@ import org.languagetool.tools.StringTools;
  */
 public class PatternRule extends AbstractPatternRule {
 
+  // more threads can match at the same time, but then new matchers are created:
+  private static final int MAX_IDLE_MATCHERS = 4;
+
   private final String shortMessage;
 
   // A list of elements as they appear in XML file (phrases count as single tokens in case of matches or skipping).
   private final List<Integer> elementNo;
 
-  // Tokens used for fast checking whether a rule can ever match.
-  private final Set<String> simpleRuleTokens;
-
-  private final Set<String> inflectedRuleTokens;
-
   // a list of antipatterns used in the rule.
   private final List<DisambiguationPatternRule> antiPatterns;
 
@@ -54,8 +54,11 @@ public class PatternRule extends AbstractPatternRule {
 
   private List<Match> suggestionMatches;
   private List<Match> suggestionMatchesOutMsg;
-  private Set<String> tokenSet;
-  private Set<String> lemmaSet;
+
+  // The matchers keep state while matching, so a matcher is taken from here for matching
+  // a sentence and put back afterwards. The number of idle matchers is limited, so
+  // the memory used doesn't grow with the number of threads that check text:
+  private final AtomicReferenceArray<PatternRuleMatcher> idleMatchers = new AtomicReferenceArray<>(MAX_IDLE_MATCHERS);
 
   // This property is used for short-circuiting evaluation of the elementNo list order.
   private boolean useList;
@@ -108,9 +111,6 @@ public class PatternRule extends AbstractPatternRule {
         loopCnt++;
       }
     }
-    //don't instantiate a hash for every sentence, simply store it:
-    simpleRuleTokens = getSimpleTokens();
-    inflectedRuleTokens = getInflectedTokens();
     antiPatterns = new ArrayList<>();
   }  
   
@@ -192,8 +192,12 @@ public class PatternRule extends AbstractPatternRule {
   @Override
   public final RuleMatch[] match(final AnalyzedSentence sentence) throws IOException {
     try {
-      final PatternRuleMatcher matcher = new PatternRuleMatcher(this, useList);
-      return matcher.match(getSentenceWithImmunization(sentence));
+      final PatternRuleMatcher matcher = takeMatcher();
+      try {
+        return matcher.match(getSentenceWithImmunization(sentence));
+      } finally {
+        putBackMatcher(matcher);
+      }
     } catch (IOException e) {
       throw new IOException("Error analyzing sentence: '" + sentence + "'", e);
     } catch (Exception e) {
@@ -201,10 +205,30 @@ public class PatternRule extends AbstractPatternRule {
     }
   }
 
+  private PatternRuleMatcher takeMatcher() {
+    for (int i = 0; i < MAX_IDLE_MATCHERS; i++) {
+      final PatternRuleMatcher matcher = idleMatchers.get(i);
+      if (matcher != null && idleMatchers.compareAndSet(i, matcher, null)) {
+        return matcher;
+      }
+    }
+    return new PatternRuleMatcher(this, useList);
+  }
+
+  private void putBackMatcher(PatternRuleMatcher matcher) {
+    for (int i = 0; i < MAX_IDLE_MATCHERS; i++) {
+      if (idleMatchers.get(i) == null && idleMatchers.compareAndSet(i, null, matcher)) {
+        return;
+      }
+    }
+    // enough idle matchers already, this one is left to the garbage collector
+  }
+
   /** Add formatted suggestion elements. */
   public final void addSuggestionMatch(final Match m) {
     if (suggestionMatches == null) {
-      suggestionMatches = new ArrayList<>();
+      // the matcher may still add elements while the rule is used by several threads:
+      suggestionMatches = new CopyOnWriteArrayList<>();
     }
     suggestionMatches.add(m);
   }
@@ -212,7 +236,7 @@ public class PatternRule extends AbstractPatternRule {
   /** Add formatted suggestion elements outside message. */
   public final void addSuggestionMatchOutMsg(final Match m) {
     if (suggestionMatchesOutMsg == null) {
-      suggestionMatchesOutMsg = new ArrayList<>();
+      suggestionMatchesOutMsg = new CopyOnWriteArrayList<>();
     }
     suggestionMatchesOutMsg.add(m);
   }
@@ -224,50 +248,6 @@ public class PatternRule extends AbstractPatternRule {
     return patternElements;
   }
 
-  /**
-   * A fast check whether this rule can be ignored for the given sentence
-   * because it can never match. Used internally for performance optimization.
-   * @since 2.4
-   */
-  public boolean canBeIgnoredFor(AnalyzedSentence sentence) {
-    return (!simpleRuleTokens.isEmpty() && !sentence.getTokenSet().containsAll(simpleRuleTokens))
-            || (!inflectedRuleTokens.isEmpty() && !sentence.getLemmaSet().containsAll(inflectedRuleTokens));
-  }
-
-  // tokens that just refer to a word - no regex, no inflection etc.
-  private synchronized Set<String> getSimpleTokens() {
-    if (tokenSet == null) {
-      tokenSet = new HashSet<>();
-      for (Element element : patternElements) {
-        if (!element.getNegation() && !element.isRegularExpression() 
-                && !element.isReferenceElement() && !element.isInflected() && element.getMinOccurrence() > 0) {
-          String str = element.getString();
-          if (!StringTools.isEmpty(str)) {
-            tokenSet.add(str.toLowerCase());
-          }
-        }
-      }
-    }
-    return tokenSet;
-  }
-
-  // tokens that just refer to a lemma - no regex etc.
-  private synchronized Set<String> getInflectedTokens() {
-    if (lemmaSet == null) {
-      lemmaSet = new HashSet<>();
-      for (Element element : patternElements) {
-        if (!element.getNegation() && !element.isRegularExpression()
-                && !element.isReferenceElement() && element.isInflected() && element.getMinOccurrence() > 0) {
-          String str = element.getString();
-          if (!StringTools.isEmpty(str)) {
-            lemmaSet.add(str.toLowerCase());
-          }
-        }
-      }
-    }
-    return lemmaSet;
-  }
-
   List<Integer> getElementNo() {
     return elementNo;
   }
@@ -300,7 +280,10 @@ public class PatternRule extends AbstractPatternRule {
       //we need a copy of the sentence, not reference to the old one
       AnalyzedSentence immunizedSentence = sentence.copy(sentence);
       for (final DisambiguationPatternRule patternRule : antiPatterns) {
-        immunizedSentence = patternRule.replace(immunizedSentence);
+        // immunization doesn't change tokens or lemmas, so the original sentence can be tested:
+        if (!patternRule.canBeIgnoredFor(sentence)) {
+          immunizedSentence = patternRule.replace(immunizedSentence);
+        }
       }
       return immunizedSentence;
     }
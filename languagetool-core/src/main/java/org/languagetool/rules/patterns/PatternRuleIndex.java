@@ -0,0 +1,202 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.AnalyzedToken;
+import org.languagetool.AnalyzedTokenReadings;
+import org.languagetool.rules.Rule;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index from the words and lemmas that pattern rules require to the rules, so that
+ * the rules that can match a sentence can be found without looking at every rule.
+ * Additionally, rules are grouped by their first pattern element: a rule cannot match
+ * if its first element matches no token, and that test is done only once per sentence
+ * for all rules that start with the same element.
+ * Used internally for performance optimization, gives the same result as
+ * calling {@link PatternRule#match(AnalyzedSentence)} for all rules.
+ * @since 2.6
+ */
+public class PatternRuleIndex {
+
+  private final Map<String, List<PatternRule>> tokenIndex = new HashMap<>();
+  private final Map<String, List<PatternRule>> lemmaIndex = new HashMap<>();
+  private final Set<PatternRule> indexedRules = new HashSet<>();
+  private final Map<PatternRule, Element> firstElements = new HashMap<>();
+
+  /**
+   * @param rules the rules to index - rules that are not pattern rules are ignored
+   */
+  public PatternRuleIndex(List<? extends Rule> rules) {
+    final Map<String, Element> elementsByKey = new HashMap<>();
+    for (Rule rule : rules) {
+      if (rule instanceof PatternRule) {
+        final PatternRule patternRule = (PatternRule) rule;
+        addFirstElement(patternRule, elementsByKey);
+        // one key is enough, all other required words are checked for the candidates only:
+        final String token = getLongest(patternRule.getSimpleTokens());
+        if (token != null) {
+          add(tokenIndex, token, patternRule);
+        } else {
+          final String lemma = getLongest(patternRule.getInflectedTokens());
+          if (lemma != null) {
+            add(lemmaIndex, lemma, patternRule);
+          } else {
+            // no requirements, this rule can never be ignored
+            continue;
+          }
+        }
+        indexedRules.add(patternRule);
+      }
+    }
+  }
+
+  /**
+   * Get a filter for the given sentence. The filter is not thread-safe.
+   */
+  public SentenceFilter getFilter(AnalyzedSentence sentence) {
+    return new SentenceFilter(sentence);
+  }
+
+  private void addFirstElement(PatternRule rule, Map<String, Element> elementsByKey) {
+    final List<Element> elements = rule.getElements();
+    if (elements.isEmpty()) {
+      return;
+    }
+    final Element first = elements.get(0);
+    if (first.getMinOccurrence() == 0) {
+      // the element is optional, so the rule can match without it
+      return;
+    }
+    final String key = first.getMatchKey();
+    if (key != null) {
+      // rules with an equal first element share the element, so it's tested only once:
+      Element element = elementsByKey.get(key);
+      if (element == null) {
+        element = first;
+        elementsByKey.put(key, element);
+      }
+      firstElements.put(rule, element);
+    }
+  }
+
+  private void add(Map<String, List<PatternRule>> index, String key, PatternRule rule) {
+    List<PatternRule> rules = index.get(key);
+    if (rules == null) {
+      rules = new ArrayList<>();
+      index.put(key, rules);
+    }
+    rules.add(rule);
+  }
+
+  // longer words are usually less common, so fewer rules need to be checked:
+  private String getLongest(Set<String> strings) {
+    String longest = null;
+    for (String s : strings) {
+      if (longest == null || s.length() > longest.length()) {
+        longest = s;
+      }
+    }
+    return longest;
+  }
+
+  /**
+   * Decides which rules can be ignored for one sentence.
+   */
+  public class SentenceFilter {
+
+    private final AnalyzedSentence sentence;
+    private final Set<PatternRule> candidates = new HashSet<>();
+    private final Map<Element, Boolean> firstElementMatches = new HashMap<>();
+
+    private SentenceFilter(AnalyzedSentence sentence) {
+      this.sentence = sentence;
+      for (String token : sentence.getTokenSet()) {
+        addCandidates(tokenIndex.get(token));
+      }
+      if (!lemmaIndex.isEmpty()) {
+        for (String lemma : sentence.getLemmaSet()) {
+          addCandidates(lemmaIndex.get(lemma));
+        }
+      }
+    }
+
+    /**
+     * Whether the rule can be ignored for the sentence because it can never match.
+     */
+    public boolean canBeIgnored(PatternRule rule) {
+      if (indexedRules.contains(rule)) {
+        if (!candidates.contains(rule)) {
+          return true;
+        }
+      } else if (rule.canBeIgnoredFor(sentence)) {
+        // not part of the index, e.g. a rule without requirements
+        return true;
+      }
+      final Element firstElement = firstElements.get(rule);
+      return firstElement != null && !matchesAnyToken(firstElement);
+    }
+
+    /**
+     * The indexed rules whose required words and lemmas all occur in the sentence.
+     */
+    Set<PatternRule> getCandidates() {
+      return candidates;
+    }
+
+    private void addCandidates(List<PatternRule> rules) {
+      if (rules != null) {
+        for (PatternRule rule : rules) {
+          if (!rule.canBeIgnoredFor(sentence)) {
+            candidates.add(rule);
+          }
+        }
+      }
+    }
+
+    private boolean matchesAnyToken(Element element) {
+      Boolean matches = firstElementMatches.get(element);
+      if (matches == null) {
+        matches = false;
+        for (AnalyzedTokenReadings tokenReadings : sentence.getTokensWithoutWhitespace()) {
+          for (int i = 0; i < tokenReadings.getReadingsLength(); i++) {
+            final AnalyzedToken token = tokenReadings.getAnalyzedToken(i);
+            if (element.isMatched(token)) {
+              matches = true;
+              break;
+            }
+          }
+          if (matches) {
+            break;
+          }
+        }
+        firstElementMatches.put(element, matches);
+      }
+      return matches;
+    }
+  }
+
+}
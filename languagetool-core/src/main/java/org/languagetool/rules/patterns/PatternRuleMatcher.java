@@ -30,26 +30,61 @@ import java.util.Arrays;
 import java.util.List;
 
 /**
- * Matches a pattern rule against plain text.
+ * Matches a pattern rule against plain text. A matcher can be re-used for several
+ * sentences, but it must not be used by more than one thread at the same time.
  */
 class PatternRuleMatcher extends AbstractPatternRulePerformer {
 
   private static final String SUGGESTION_START_TAG = "<suggestion>";
   private static final String SUGGESTION_END_TAG = "</suggestion>";
   private static final String MISTAKE = "<mistake/>";
+  private static final RuleMatch[] NO_MATCHES = new RuleMatch[0];
+  // longer arrays of token positions are not kept after a sentence, so a huge "sentence"
+  // (e.g. a table without punctuation) doesn't make every later sentence more expensive:
+  private static final int MAX_KEPT_TOKEN_POSITIONS = 256;
 
   private final boolean useList;
+  private final List<ElementMatcher> elementMatchers;
+  private final int minOccurCorrection;
+  private final boolean usesUnifier;
+
+  private int[] tokenPositions = new int[0];
 
   PatternRuleMatcher(PatternRule rule, boolean useList) {
     super(rule, rule.getLanguage().getUnifier());
     this.useList = useList;
+    this.elementMatchers = createElementMatchers();
+    this.minOccurCorrection = getMinOccurrenceCorrection();
+    boolean hasNeutralElement = false;
+    for (Element element : rule.getPatternElements()) {
+      hasNeutralElement |= element.isUnificationNeutral();
+    }
+    this.usesUnifier = rule.testUnification || hasNeutralElement;
   }
 
   final RuleMatch[] match(final AnalyzedSentence sentence) throws IOException {
-    final List<ElementMatcher> elementMatchers = createElementMatchers();
-    final List<RuleMatch> ruleMatches = new ArrayList<>();
+    for (ElementMatcher elementMatcher : elementMatchers) {
+      elementMatcher.reset();
+    }
+    if (usesUnifier) {
+      // the unifier keeps some state even after reset(), so use a fresh one:
+      unifier = rule.getLanguage().getUnifier();
+    }
+    prevMatched = false;
+    unifiedTokens = null;
+    List<RuleMatch> ruleMatches = null;  // only created when needed, as most rules don't match
     final AnalyzedTokenReadings[] tokens = sentence.getTokensWithoutWhitespace();
-    final int[] tokenPositions = new int[tokens.length + 1];
+    final int[] tokenPositions;
+    if (tokens.length + 1 > MAX_KEPT_TOKEN_POSITIONS) {
+      tokenPositions = new int[tokens.length + 1];
+    } else {
+      if (this.tokenPositions.length < tokens.length + 1) {
+        this.tokenPositions = new int[tokens.length + 1];
+      } else {
+        Arrays.fill(this.tokenPositions, 0, tokens.length + 1, 0);
+      }
+      tokenPositions = this.tokenPositions;
+    }
     final int patternSize = elementMatchers.size();
 
     /*for (ElementMatcher elementMatcher : elementMatchers) {
@@ -61,7 +96,6 @@ class PatternRuleMatcher extends AbstractPatternRulePerformer {
     final int limit = Math.max(0, tokens.length - patternSize + 1);
     ElementMatcher elem = null;
     int i = 0;
-    int minOccurCorrection = getMinOccurrenceCorrection();
     while (i < limit + minOccurCorrection && !(rule.sentStart && i > 0)) {
       int skipShiftTotal = 0;
       boolean allElementsMatch = false;
@@ -140,11 +174,17 @@ class PatternRuleMatcher extends AbstractPatternRulePerformer {
         final RuleMatch ruleMatch = createRuleMatch(tokenPositions, tokens,
             firstMatchToken, lastMatchToken, firstMarkerMatchToken, lastMarkerMatchToken);
         if (ruleMatch != null) {
+          if (ruleMatches == null) {
+            ruleMatches = new ArrayList<>();
+          }
           ruleMatches.add(ruleMatch);
         }
       }
       i++;
     }
+    if (ruleMatches == null) {
+      return NO_MATCHES;
+    }
     return ruleMatches.toArray(new RuleMatch[ruleMatches.size()]);
   }
 
@@ -306,7 +346,11 @@ class PatternRuleMatcher extends AbstractPatternRulePerformer {
             }
           } else {
             // FIXME: is this correct? this is how we deal with multiple matches
-            suggestionMatches.add(suggestionMatches.get(numbersToMatches[j]));
+            synchronized (suggestionMatches) {  // the rule may be shared by several threads
+              if (matchCounter >= suggestionMatches.size()) {
+                suggestionMatches.add(suggestionMatches.get(numbersToMatches[j]));
+              }
+            }
           }
         }
         if (!newWay) {
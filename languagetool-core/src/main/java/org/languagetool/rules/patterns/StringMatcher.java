@@ -0,0 +1,199 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Matches complete strings against a regular expression. Simple expressions, i.e. an
+ * alternation of words like {@code a|b|c} where each word may be followed by {@code .*},
+ * are matched with a set lookup and prefix comparisons instead of a regular expression.
+ * The result is always the same as {@code Pattern.compile(regex).matcher(s).matches()}.
+ * Thread-safe.
+ */
+final class StringMatcher {
+
+  private static final String CASE_INSENSITIVE = "(?iu)";
+  // characters with a special meaning in a regular expression (except '|'):
+  private static final String SPECIAL_CHARS = "\\[](){}.*+?^$";
+  private static final String ANY_SUFFIX = ".*";
+  // more distinct strings aren't memoized to limit the memory used:
+  private static final int MAX_MEMO_SIZE = 256;
+
+  private final boolean caseSensitive;
+  private final Pattern pattern;
+  private final Set<String> words;
+  private final String[] prefixes;
+  private final int minLength;
+  private final int maxLength;
+  private final ConcurrentMap<String, Boolean> memo;
+
+  /**
+   * @param regex the regular expression that strings need to match completely
+   * @param caseSensitive whether the regular expression is case-sensitive
+   * @param memoize whether to remember the result for strings matched with a regular
+   *   expression - useful only for strings from a small set, like POS tags
+   */
+  static StringMatcher create(String regex, boolean caseSensitive, boolean memoize) {
+    final Set<String> words = new HashSet<>();
+    final List<String> prefixes = new ArrayList<>();
+    if (parseAlternation(regex, caseSensitive, words, prefixes)) {
+      return new StringMatcher(caseSensitive, null, words, prefixes, false);
+    }
+    final Pattern pattern = Pattern.compile(caseSensitive ? regex : CASE_INSENSITIVE + regex);
+    return new StringMatcher(caseSensitive, pattern, words, prefixes, memoize);
+  }
+
+  private StringMatcher(boolean caseSensitive, Pattern pattern, Set<String> words, List<String> prefixes, boolean memoize) {
+    this.caseSensitive = caseSensitive;
+    this.pattern = pattern;
+    this.words = words;
+    this.prefixes = prefixes.toArray(new String[prefixes.size()]);
+    int min = Integer.MAX_VALUE;
+    int max = -1;
+    for (String word : words) {
+      min = Math.min(min, word.length());
+      max = Math.max(max, word.length());
+    }
+    minLength = min;
+    maxLength = max;
+    memo = memoize ? new ConcurrentHashMap<String, Boolean>() : null;
+  }
+
+  boolean matches(String s) {
+    if (pattern != null) {
+      return matchesPattern(s);
+    }
+    final int length = s.length();
+    if (length >= minLength && length <= maxLength && words.contains(caseSensitive ? s : fold(s))) {
+      return true;
+    }
+    for (String prefix : prefixes) {
+      if (s.regionMatches(!caseSensitive, 0, prefix, 0, prefix.length())
+              && !containsLineTerminator(s, prefix.length())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Whether a regular expression is used for matching, i.e. the expression is not simple.
+   */
+  boolean usesPattern() {
+    return pattern != null;
+  }
+
+  private boolean matchesPattern(String s) {
+    if (memo != null) {
+      final Boolean known = memo.get(s);
+      if (known != null) {
+        return known;
+      }
+    }
+    final boolean matches = pattern.matcher(s).matches();
+    if (memo != null && memo.size() < MAX_MEMO_SIZE) {
+      memo.put(s, matches);
+    }
+    return matches;
+  }
+
+  private static boolean parseAlternation(String regex, boolean caseSensitive, Set<String> words, List<String> prefixes) {
+    String expr = regex;
+    if (expr.length() >= 2 && expr.charAt(0) == '(' && expr.charAt(expr.length() - 1) == ')') {
+      expr = expr.substring(1, expr.length() - 1);
+      if (expr.startsWith("?:")) {
+        expr = expr.substring(2);
+      }
+    }
+    for (String alternative : expr.split("\\|", -1)) {
+      if (alternative.endsWith(ANY_SUFFIX)) {
+        final String prefix = alternative.substring(0, alternative.length() - ANY_SUFFIX.length());
+        if (!isLiteral(prefix)) {
+          return false;
+        }
+        prefixes.add(prefix);
+      } else {
+        if (!isLiteral(alternative)) {
+          return false;
+        }
+        words.add(caseSensitive ? alternative : fold(alternative));
+      }
+    }
+    return true;
+  }
+
+  private static boolean isLiteral(String s) {
+    for (int i = 0; i < s.length(); i++) {
+      final char c = s.charAt(i);
+      // surrogates are excluded as the regex engine folds case per code point, not per char:
+      if (SPECIAL_CHARS.indexOf(c) != -1 || Character.isSurrogate(c)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Fold the case of each char like the regex engine does with {@code (?iu)}, so that
+   * two strings match case-insensitively if their folded forms are equal.
+   */
+  private static String fold(String s) {
+    for (int i = 0; i < s.length(); i++) {
+      final char c = s.charAt(i);
+      if (fold(c) != c) {
+        // only create a new string if needed - most strings are already lowercase:
+        final char[] chars = s.toCharArray();
+        for (int j = i; j < chars.length; j++) {
+          chars[j] = fold(chars[j]);
+        }
+        return new String(chars);
+      }
+    }
+    return s;
+  }
+
+  private static char fold(char c) {
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+
+  // '.' doesn't match line terminators:
+  private static boolean containsLineTerminator(String s, int fromIndex) {
+    for (int i = fromIndex; i < s.length(); i++) {
+      final char c = s.charAt(i);
+      if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return pattern != null ? pattern.pattern() : "words=" + words + ", prefixes=" + Arrays.toString(prefixes);
+  }
+
+}
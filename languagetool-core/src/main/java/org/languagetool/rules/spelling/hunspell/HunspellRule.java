@@ -37,6 +37,7 @@ import org.languagetool.JLanguageTool;
 import org.languagetool.Language;
 import org.languagetool.rules.Category;
 import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.SuggestionSupplier;
 import org.languagetool.rules.spelling.SpellingCheckRule;
 import org.languagetool.tools.StringTools;
 
@@ -102,11 +103,15 @@ public class HunspellRule extends SpellingCheckRule {
             len, len + word.length(),
             messages.getString("spelling"),
             messages.getString("desc_spelling_short"));
-        final List<String> suggestions = getSuggestions(word);
-        suggestions.addAll(getAdditionalSuggestions(suggestions, word));
-        if (!suggestions.isEmpty()) {
-          ruleMatch.setSuggestedReplacements(suggestions);
-        }
+        // most suggestions are never looked at, so only compute them when needed:
+        ruleMatch.setLazySuggestedReplacements(new SuggestionSupplier() {
+          @Override
+          public List<String> getSuggestions() throws IOException {
+            final List<String> suggestions = HunspellRule.this.getSuggestions(word);
+            suggestions.addAll(getAdditionalSuggestions(suggestions, word));
+            return suggestions;
+          }
+        });
         ruleMatches.add(ruleMatch);
       }
       len += word.length() + 1;
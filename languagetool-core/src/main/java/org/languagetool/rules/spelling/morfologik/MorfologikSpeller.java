@@ -21,25 +21,35 @@ package org.languagetool.rules.spelling.morfologik;
 import morfologik.speller.Speller;
 import morfologik.stemming.Dictionary;
 
-import org.languagetool.JLanguageTool;
 import org.languagetool.rules.spelling.SpellingCheckRule;
+import org.languagetool.tools.ConcurrentLruCache;
+import org.languagetool.tools.SharedDictionaries;
 import org.languagetool.tools.StringTools;
 
 import java.io.IOException;
-import java.net.URL;
 import java.nio.charset.CharacterCodingException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * Morfologik-based spell checker.
+ * Morfologik-based spell checker. Whether a word is misspelled and its suggestions
+ * are cached, shared by all spellers with the same dictionary and maximum edit distance.
  */
 public class MorfologikSpeller {
 
+  /** Maximum number of words cached per dictionary. */
+  static final int MAX_CACHED_WORDS = 50_000;
+
+  private static final ConcurrentMap<String, ConcurrentLruCache<String, CachedWord>> caches = new ConcurrentHashMap<>();
+
   private final Dictionary dictionary;
   private final Speller speller;
   private final Locale conversionLocale;
+  private final ConcurrentLruCache<String, CachedWord> cache;
 
   /**
    * Creates a speller with the given maximum edit distance.
@@ -50,10 +60,22 @@ public class MorfologikSpeller {
     if (maxEditDistance <= 0) {
       throw new RuntimeException("maxEditDistance must be > 0: " + maxEditDistance);
     }
-    final URL url = JLanguageTool.getDataBroker().getFromResourceDirAsUrl(filename);
-    dictionary = Dictionary.read(url);
+    dictionary = SharedDictionaries.getFromResourceDir(filename);
     speller = new Speller(dictionary, maxEditDistance);
     this.conversionLocale = conversionLocale != null ? conversionLocale : Locale.getDefault();
+    cache = getCache(filename + "/" + maxEditDistance);
+  }
+
+  private static ConcurrentLruCache<String, CachedWord> getCache(String key) {
+    ConcurrentLruCache<String, CachedWord> cache = caches.get(key);
+    if (cache == null) {
+      final ConcurrentLruCache<String, CachedWord> newCache = new ConcurrentLruCache<>(MAX_CACHED_WORDS);
+      cache = caches.putIfAbsent(key, newCache);
+      if (cache == null) {
+        cache = newCache;
+      }
+    }
+    return cache;
   }
 
   /**
@@ -77,14 +99,50 @@ public class MorfologikSpeller {
     return word.length() > 0 
             && !SpellingCheckRule.LANGUAGETOOL.equals(word)
             && !SpellingCheckRule.LANGUAGETOOL_FX.equals(word)
-            && speller.isMisspelled(word);
+            && getCachedWord(word).misspelled;
+  }
+
+  /**
+   * The cache of the words checked so far, to get its statistics.
+   * @since 2.6
+   */
+  public ConcurrentLruCache<String, ?> getCache() {
+    return cache;
+  }
+
+  private CachedWord getCachedWord(String word) {
+    CachedWord cachedWord = cache.get(word);
+    if (cachedWord == null) {
+      final boolean misspelled;
+      // the speller isn't thread-safe, and lazy suggestions may be computed in another thread:
+      synchronized (speller) {
+        misspelled = speller.isMisspelled(word);
+      }
+      cachedWord = new CachedWord(misspelled);
+      cache.put(word, cachedWord);
+    }
+    return cachedWord;
   }
 
   public List<String> getSuggestions(String word) {
+    final CachedWord cachedWord = getCachedWord(word);
+    List<String> suggestions = cachedWord.suggestions;
+    if (suggestions == null) {
+      // computed only once per word, as this is the expensive part:
+      suggestions = Collections.unmodifiableList(findSuggestions(word));
+      cachedWord.suggestions = suggestions;
+    }
+    // the callers may modify the list:
+    return new ArrayList<>(suggestions);
+  }
+
+  private List<String> findSuggestions(String word) {
     final List<String> suggestions = new ArrayList<>();
     try {
-      suggestions.addAll(speller.findReplacements(word));
-      suggestions.addAll(speller.replaceRunOnWords(word));
+      synchronized (speller) {
+        suggestions.addAll(speller.findReplacements(word));
+        suggestions.addAll(speller.replaceRunOnWords(word));
+      }
     } catch (CharacterCodingException e) {
       throw new RuntimeException(e);
     }
@@ -119,4 +177,16 @@ public class MorfologikSpeller {
     return speller.convertsCase();
   }
 
+  /**
+   * Whether a word is misspelled, and its suggestions once they have been asked for.
+   */
+  private static class CachedWord {
+    private final boolean misspelled;
+    // computed when first asked for, threads asking at the same time may both compute them:
+    private volatile List<String> suggestions;
+    CachedWord(boolean misspelled) {
+      this.misspelled = misspelled;
+    }
+  }
+
 }
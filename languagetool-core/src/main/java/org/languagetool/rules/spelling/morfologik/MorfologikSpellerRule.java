@@ -26,6 +26,7 @@ import org.languagetool.Language;
 import org.languagetool.rules.Category;
 import org.languagetool.rules.ITSIssueType;
 import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.SuggestionSupplier;
 import org.languagetool.rules.spelling.SpellingCheckRule;
 
 import java.io.IOException;
@@ -157,11 +158,18 @@ public abstract class MorfologikSpellerRule extends SpellingCheckRule {
       final RuleMatch ruleMatch = new RuleMatch(this, startPos, startPos
           + word.length(), messages.getString("spelling"),
           messages.getString("desc_spelling_short"));
-      List<String> suggestions = speller.getSuggestions(word);
-      suggestions.addAll(getAdditionalSuggestions(suggestions, word));
-      if (!suggestions.isEmpty()) {
-        ruleMatch.setSuggestedReplacements(orderSuggestions(suggestions,word));
-      }
+      // most suggestions are never looked at, so only compute them when needed:
+      ruleMatch.setLazySuggestedReplacements(new SuggestionSupplier() {
+        @Override
+        public List<String> getSuggestions() throws IOException {
+          final List<String> suggestions = speller.getSuggestions(word);
+          suggestions.addAll(getAdditionalSuggestions(suggestions, word));
+          if (suggestions.isEmpty()) {
+            return suggestions;
+          }
+          return orderSuggestions(suggestions, word);
+        }
+      });
       ruleMatches.add(ruleMatch);
     }
     return ruleMatches;
@@ -19,8 +19,8 @@
 package org.languagetool.synthesis;
 
 import java.io.IOException;
-import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -32,9 +32,18 @@ import morfologik.stemming.WordData;
 
 import org.languagetool.AnalyzedToken;
 import org.languagetool.JLanguageTool;
+import org.languagetool.tools.ConcurrentLruCache;
+import org.languagetool.tools.SharedDictionaries;
 
+/**
+ * A synthesizer based on a Morfologik dictionary. Thread-safe: each thread uses its own
+ * stemmer over the shared dictionary, and the forms found are cached.
+ */
 public class BaseSynthesizer implements Synthesizer {
 
+  // maximum number of (lemma, tag) combinations whose forms are cached:
+  private static final int MAX_CACHED_FORMS = 20_000;
+
   protected volatile List<String> possibleTags;
 
   private final String tagFileName;
@@ -42,7 +51,9 @@ public class BaseSynthesizer implements Synthesizer {
 
   private volatile Dictionary dictionary;
 
-  private final IStemmer stemmer;
+  // the stemmer is not thread-safe, so each thread gets its own:
+  private final ThreadLocal<IStemmer> stemmers = new ThreadLocal<>();
+  private final ConcurrentLruCache<String, List<String>> formsCache = new ConcurrentLruCache<>(MAX_CACHED_FORMS);
 
   /**
    * @param resourceFileName The dictionary file name.
@@ -51,7 +62,8 @@ public class BaseSynthesizer implements Synthesizer {
   public BaseSynthesizer(final String resourceFileName, final String tagFileName) {
     this.resourceFileName = resourceFileName;
     this.tagFileName = tagFileName;
-    this.stemmer = createStemmer();
+    // load the dictionary now, so a missing dictionary is noticed early:
+    stemmers.set(createStemmer());
   }
 
   /**
@@ -66,8 +78,7 @@ public class BaseSynthesizer implements Synthesizer {
       synchronized (this) {
         dict = this.dictionary;
         if (dict == null) {
-          final URL url = JLanguageTool.getDataBroker().getFromResourceDirAsUrl(resourceFileName);
-          this.dictionary = dict = Dictionary.read(url);
+          this.dictionary = dict = SharedDictionaries.getFromResourceDir(resourceFileName);
         }
       }
     }
@@ -96,12 +107,31 @@ public class BaseSynthesizer implements Synthesizer {
    * @param results the list to collect the inflected forms.
    */
   protected void lookup(String lemma, String posTag, List<String> results) {
-    synchronized (this) { // the stemmer is not thread-safe
-      final List<WordData> wordForms = stemmer.lookup(lemma + "|" + posTag);
-      for (WordData wd : wordForms) {
-        results.add(wd.getStem().toString());
+    results.addAll(getDictionaryForms(lemma, posTag));
+  }
+
+  /**
+   * The inflected forms of a lemma defined by a part-of-speech tag, as found in the dictionary.
+   * @return an unmodifiable list of the forms, empty if no forms were found
+   * @since 2.6
+   */
+  protected List<String> getDictionaryForms(String lemma, String posTag) {
+    final String key = lemma + "|" + posTag;
+    List<String> forms = formsCache.get(key);
+    if (forms == null) {
+      final List<WordData> wordForms = getStemmer().lookup(key);
+      if (wordForms.isEmpty()) {
+        forms = Collections.emptyList();
+      } else {
+        final List<String> newForms = new ArrayList<>(wordForms.size());
+        for (WordData wd : wordForms) {
+          newForms.add(wd.getStem().toString());
+        }
+        forms = Collections.unmodifiableList(newForms);
       }
+      formsCache.put(key, forms);
     }
+    return forms;
   }
 
   /**
@@ -146,12 +176,26 @@ public class BaseSynthesizer implements Synthesizer {
   /**
    * @since 2.5
    * 
-   * @return the stemmer interface to be used.
+   * @return the stemmer interface to be used. Since 2.6, this is the stemmer of the
+   *   calling thread, so it must not be passed on to other threads.
    */
   public IStemmer getStemmer() {
+    IStemmer stemmer = stemmers.get();
+    if (stemmer == null) {
+      stemmer = createStemmer();
+      stemmers.set(stemmer);
+    }
     return stemmer;
   }
 
+  /**
+   * The cache of the forms looked up so far, to get its statistics.
+   * @since 2.6
+   */
+  public ConcurrentLruCache<String, ?> getFormsCache() {
+    return formsCache;
+  }
+
   protected void initPossibleTags() throws IOException {
     List<String> tags = possibleTags;
     if (tags == null) {
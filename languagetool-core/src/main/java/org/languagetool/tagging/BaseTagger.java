@@ -19,7 +19,6 @@
 package org.languagetool.tagging;
 
 import java.io.IOException;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -31,7 +30,7 @@ import morfologik.stemming.WordData;
 
 import org.languagetool.AnalyzedToken;
 import org.languagetool.AnalyzedTokenReadings;
-import org.languagetool.JLanguageTool;
+import org.languagetool.tools.SharedDictionaries;
 import org.languagetool.tools.StringTools;
 
 /**
@@ -45,6 +44,10 @@ public abstract class BaseTagger implements Tagger {
 
   private boolean tagLowercaseWithUppercase = true;
   private volatile Dictionary dictionary;
+  private volatile DictionaryLookupCache lookupCache;
+
+  // DictionaryLookup is not thread-safe, so each thread gets its own:
+  private final ThreadLocal<IStemmer> dictLookups = new ThreadLocal<>();
 
   /**
    * Get the filename, e.g., {@code /en/english.dict}.
@@ -61,14 +64,37 @@ public abstract class BaseTagger implements Tagger {
       synchronized (this) {
         dict = dictionary;
         if (dict == null) {
-          final URL url = JLanguageTool.getDataBroker().getFromResourceDirAsUrl(getFileName());
-          dictionary = dict = Dictionary.read(url);
+          dictionary = dict = SharedDictionaries.getFromResourceDir(getFileName());
         }
       }
     }
     return dict;
   }
 
+  /**
+   * The cache of dictionary lookups, shared by all instances of this tagger class.
+   * @since 2.6
+   */
+  public DictionaryLookupCache getLookupCache() {
+    DictionaryLookupCache cache = lookupCache;
+    if (cache == null) {
+      lookupCache = cache = DictionaryLookupCache.getInstance(getClass().getName() + ":" + getFileName());
+    }
+    return cache;
+  }
+
+  /**
+   * The dictionary lookup of the current thread.
+   */
+  private IStemmer getDictionaryLookup() throws IOException {
+    IStemmer dictLookup = dictLookups.get();
+    if (dictLookup == null) {
+      dictLookup = new DictionaryLookup(getDictionary());
+      dictLookups.set(dictLookup);
+    }
+    return dictLookup;
+  }
+
   @Override
   public List<AnalyzedTokenReadings> tag(final List<String> sentenceTokens)
       throws IOException {
@@ -77,14 +103,14 @@ public abstract class BaseTagger implements Tagger {
     List<AnalyzedToken> upperTaggerTokens;
     final List<AnalyzedTokenReadings> tokenReadings = new ArrayList<>();
     int pos = 0;
-    final IStemmer dictLookup = new DictionaryLookup(getDictionary());
 
     for (String word : sentenceTokens) {
       final List<AnalyzedToken> l = new ArrayList<>();
       final String lowerWord = word.toLowerCase(conversionLocale);
-      taggerTokens = asAnalyzedTokenList(word, dictLookup.lookup(word));
-      lowerTaggerTokens = asAnalyzedTokenList(word, dictLookup.lookup(lowerWord));
       final boolean isLowercase = word.equals(lowerWord);
+      taggerTokens = lookup(word, word);
+      // the lowercase tokens are only used if they differ from the tokens of the word itself:
+      lowerTaggerTokens = isLowercase ? taggerTokens : lookup(word, lowerWord);
       final boolean isMixedCase = StringTools.isMixedCase(word);
 
       //normal case
@@ -99,8 +125,7 @@ public abstract class BaseTagger implements Tagger {
       if (tagLowercaseWithUppercase) {
         if (lowerTaggerTokens.isEmpty() && taggerTokens.isEmpty()) {
           if (isLowercase) {
-            upperTaggerTokens = asAnalyzedTokenList(word,
-                dictLookup.lookup(StringTools.uppercaseFirstChar(word)));
+            upperTaggerTokens = lookup(word, StringTools.uppercaseFirstChar(word));
             if (!upperTaggerTokens.isEmpty()) {
               addTokens(upperTaggerTokens, l);
             }
@@ -125,6 +150,28 @@ public abstract class BaseTagger implements Tagger {
     return tokenReadings;
   }
 
+  /**
+   * The readings of {@code lookupWord} in the dictionary, as tokens for {@code word}.
+   * The readings are taken from the {@link #getLookupCache() cache} if possible.
+   */
+  private List<AnalyzedToken> lookup(final String word, final String lookupWord) throws IOException {
+    final DictionaryLookupCache cache = getLookupCache();
+    List<DictionaryLookupCache.Reading> readings = cache.get(lookupWord);
+    if (readings == null) {
+      final List<AnalyzedToken> lookupTokens = asAnalyzedTokenList(lookupWord, getDictionaryLookup().lookup(lookupWord));
+      readings = new ArrayList<>(lookupTokens.size());
+      for (AnalyzedToken token : lookupTokens) {
+        readings.add(new DictionaryLookupCache.Reading(token.getPOSTag(), token.getLemma()));
+      }
+      cache.put(lookupWord, readings);
+    }
+    final List<AnalyzedToken> tokens = new ArrayList<>(readings.size());
+    for (DictionaryLookupCache.Reading reading : readings) {
+      tokens.add(new AnalyzedToken(word, reading.getPosTag(), reading.getLemma()));
+    }
+    return tokens;
+  }
+
   protected List<AnalyzedToken> asAnalyzedTokenList(final String word, final List<WordData> wdList) {
     final List<AnalyzedToken> aTokenList = new ArrayList<>();
     for (WordData wd : wdList) {
@@ -0,0 +1,81 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging;
+
+import org.languagetool.tools.ConcurrentLruCache;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A bounded cache of the readings a tagger finds in its dictionary for a word form,
+ * shared by all instances of the same tagger. As the frequency of words in a text
+ * follows a Zipfian distribution, most words are found in the cache, avoiding the
+ * dictionary lookup and the decoding of its results. The least recently used word forms
+ * are removed if the cache is full. Thread-safe.
+ * @see BaseTagger#getLookupCache()
+ * @since 2.6
+ */
+public final class DictionaryLookupCache extends ConcurrentLruCache<String, List<DictionaryLookupCache.Reading>> {
+
+  /** Maximum number of word forms cached per tagger. */
+  static final int MAX_SIZE = 100_000;
+
+  private static final ConcurrentMap<String, DictionaryLookupCache> caches = new ConcurrentHashMap<>();
+
+  DictionaryLookupCache(int maxSize) {
+    super(maxSize);
+  }
+
+  /**
+   * The cache shared by all taggers with the same key.
+   */
+  static DictionaryLookupCache getInstance(String key) {
+    DictionaryLookupCache cache = caches.get(key);
+    if (cache == null) {
+      final DictionaryLookupCache newCache = new DictionaryLookupCache(MAX_SIZE);
+      cache = caches.putIfAbsent(key, newCache);
+      if (cache == null) {
+        cache = newCache;
+      }
+    }
+    return cache;
+  }
+
+  /**
+   * A reading of a word form, to be turned into an {@link org.languagetool.AnalyzedToken}
+   * for the actual token, as those are mutable. Immutable.
+   */
+  static final class Reading {
+    private final String posTag;
+    private final String lemma;
+    Reading(String posTag, String lemma) {
+      this.posTag = posTag;
+      this.lemma = lemma;
+    }
+    String getPosTag() {
+      return posTag;
+    }
+    String getLemma() {
+      return lemma;
+    }
+  }
+
+}
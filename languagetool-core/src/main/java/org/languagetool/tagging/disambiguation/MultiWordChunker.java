@@ -39,7 +39,8 @@ public class MultiWordChunker implements Disambiguator {
 
   private final String filename;
 
-  private Map<String, Integer> mStartSpace;
+  // volatile and assigned last, so other threads never see a partial initialization:
+  private volatile Map<String, Integer> mStartSpace;
   private Map<String, Integer> mStartNoSpace;
   private Map<String, String> mFull;
 
@@ -95,9 +96,9 @@ public class MultiWordChunker implements Disambiguator {
       mFull.put(tokenAndTag[0], tokenAndTag[1]);
     }
     
-    this.mStartSpace = mStartSpace;
     this.mStartNoSpace = mStartNoSpace;
     this.mFull = mFull;
+    this.mStartSpace = mStartSpace;
   }
 
   /**
@@ -62,7 +62,10 @@ public class XmlRuleDisambiguator implements Disambiguator {
       }
     }
     for (final DisambiguationPatternRule patternRule : disambiguationRules) {
-      sentence = patternRule.replace(sentence);
+      // rules may add lemmas, so the test is done for the sentence as changed by the previous rules:
+      if (!patternRule.canBeIgnoredFor(sentence)) {
+        sentence = patternRule.replace(sentence);
+      }
     }
     return sentence;
   }
@@ -0,0 +1,147 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tools;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache that removes the least recently used entries if it's full. The cache
+ * is split into stripes with their own lock, so threads using it at the same time rarely
+ * wait for each other. Counts hits and misses. Thread-safe.
+ * @since 2.6
+ */
+public class ConcurrentLruCache<K, V> {
+
+  // a power of two, so the stripe can be selected with a bit mask:
+  private static final int STRIPES = 16;
+
+  private final Stripe<K, V>[] stripes;
+
+  /**
+   * @param maxSize the maximum number of entries, rounded to a multiple of the number of stripes
+   */
+  @SuppressWarnings("unchecked")
+  public ConcurrentLruCache(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("Cache size must be >= 1: " + maxSize);
+    }
+    stripes = new Stripe[STRIPES];
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new Stripe<>(Math.max(1, maxSize / STRIPES));
+    }
+  }
+
+  /**
+   * @return the value, or {@code null} if the key is not in the cache
+   */
+  public V get(K key) {
+    return getStripe(key).get(key);
+  }
+
+  public void put(K key, V value) {
+    getStripe(key).put(key, value);
+  }
+
+  public long getHitCount() {
+    long count = 0;
+    for (Stripe<K, V> stripe : stripes) {
+      count += stripe.getHitCount();
+    }
+    return count;
+  }
+
+  public long getMissCount() {
+    long count = 0;
+    for (Stripe<K, V> stripe : stripes) {
+      count += stripe.getMissCount();
+    }
+    return count;
+  }
+
+  /**
+   * The share of lookups found in the cache, between 0 and 1, or 0 if there haven't been any lookups.
+   */
+  public double getHitRate() {
+    final long hits = getHitCount();
+    final long lookups = hits + getMissCount();
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  /**
+   * Number of entries in the cache.
+   */
+  public int getSize() {
+    int size = 0;
+    for (Stripe<K, V> stripe : stripes) {
+      size += stripe.getSize();
+    }
+    return size;
+  }
+
+  private Stripe<K, V> getStripe(K key) {
+    final int hash = key.hashCode();
+    // spread the bits, as the hash codes of short strings differ mostly in the lower bits:
+    return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+  }
+
+  private static class Stripe<K, V> {
+
+    private final Map<K, V> entries;
+    private long hitCount;
+    private long missCount;
+
+    Stripe(final int maxSize) {
+      // access order, so the least recently used entry comes first:
+      entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+          return size() > maxSize;
+        }
+      };
+    }
+
+    synchronized V get(K key) {
+      final V value = entries.get(key);
+      if (value == null) {
+        missCount++;
+      } else {
+        hitCount++;
+      }
+      return value;
+    }
+
+    synchronized void put(K key, V value) {
+      entries.put(key, value);
+    }
+
+    synchronized long getHitCount() {
+      return hitCount;
+    }
+
+    synchronized long getMissCount() {
+      return missCount;
+    }
+
+    synchronized int getSize() {
+      return entries.size();
+    }
+  }
+
+}
@@ -25,6 +25,8 @@ import org.languagetool.rules.ITSIssueType;
 import org.languagetool.rules.RuleMatch;
 import org.languagetool.rules.patterns.PatternRule;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 
 /**
@@ -35,6 +37,7 @@ import java.util.List;
 public class RuleAsXmlSerializer {
 
   private static final int CAPACITY = 200;
+  private static final String START_MARKER = "__languagetool_start_marker";
 
   /**
    * Get the string to begin the XML. After this, use {@link #ruleMatchesToXmlSnippet} and then {@link #getXmlEnd()}
@@ -73,57 +76,85 @@ public class RuleAsXmlSerializer {
    */
   public String ruleMatchesToXmlSnippet(List<RuleMatch> ruleMatches, String text, int contextSize) {
     StringBuilder xml = new StringBuilder(CAPACITY);
-    //
-    // IMPORTANT: people rely on this format, don't change it!
-    //
+    ContextTools contextTools = getContextTools(contextSize);
+    for (RuleMatch match : ruleMatches) {
+      appendRuleMatch(xml, match, text, contextTools);
+    }
+    return xml.toString();
+  }
+
+  /**
+   * Write an XML representation of the given rule matches to {@code writer}, one match
+   * at a time, so that the complete XML never needs to be kept in memory. The writer
+   * is not flushed or closed.
+   * @param text the original text that was checked, used to get the context of the matches
+   * @param contextSize the desired context size in characters
+   * @since 2.6
+   */
+  public void ruleMatchesToXml(List<RuleMatch> ruleMatches, String text, int contextSize,
+                               Language lang, Language motherTongue, Writer writer) throws IOException {
+    writer.write(getXmlStart(lang, motherTongue));
+    StringBuilder xml = new StringBuilder(CAPACITY);
+    ContextTools contextTools = getContextTools(contextSize);
+    for (RuleMatch match : ruleMatches) {
+      xml.setLength(0);
+      appendRuleMatch(xml, match, text, contextTools);
+      writer.append(xml);
+    }
+    writer.write(getXmlEnd());
+  }
+
+  private ContextTools getContextTools(int contextSize) {
     ContextTools contextTools = new ContextTools();
     contextTools.setEscapeHtml(false);
     contextTools.setContextSize(contextSize);
-    String startMarker = "__languagetool_start_marker";
-    contextTools.setErrorMarkerStart(startMarker);
+    contextTools.setErrorMarkerStart(START_MARKER);
     contextTools.setErrorMarkerEnd("");
+    return contextTools;
+  }
 
-    for (RuleMatch match : ruleMatches) {
-      String subId = "";
-      if (match.getRule() instanceof PatternRule) {
-        PatternRule pRule = (PatternRule) match.getRule();
-        if (pRule.getSubId() != null) {
-          subId = " subId=\"" + escapeXMLForAPIOutput(pRule.getSubId()) + "\" ";
-        }
-      }
-      xml.append("<error fromy=\"").append(match.getLine()).append('"')
-              .append(" fromx=\"").append(match.getColumn() - 1).append('"')
-              .append(" toy=\"").append(match.getEndLine()).append('"')
-              .append(" tox=\"").append(match.getEndColumn() - 1).append('"')
-              .append(" ruleId=\"").append(match.getRule().getId()).append('"');
-      String msg = match.getMessage().replaceAll("</?suggestion>", "'");
-      xml.append(subId);
-      xml.append(" msg=\"").append(escapeXMLForAPIOutput(msg)).append('"');
-      String context = contextTools.getContext(match.getFromPos(), match.getToPos(), text);
-      xml.append(" replacements=\"").append(escapeXMLForAPIOutput(StringTools.listToString(
-              match.getSuggestedReplacements(), "#"))).append('"');
-      // get position of error in context and remove artificial marker again:
-      int contextOffset = context.indexOf(startMarker);
-      context = context.replaceFirst(startMarker, "");
-      context = context.replaceAll("[\n\r]", " ");
-      xml.append(" context=\"").append(StringTools.escapeXML(context)).append('"')
-              .append(" contextoffset=\"").append(contextOffset).append('"')
-              .append(" offset=\"").append(match.getFromPos()).append('"')
-              .append(" errorlength=\"").append(match.getToPos() - match.getFromPos()).append('"');
-      if (match.getRule().getUrl() != null) {
-        xml.append(" url=\"").append(escapeXMLForAPIOutput(match.getRule().getUrl().toString())).append('"');
-      }
-      Category category = match.getRule().getCategory();
-      if (category != null) {
-        xml.append(" category=\"").append(escapeXMLForAPIOutput(category.getName())).append('"');
-      }
-      ITSIssueType type = match.getRule().getLocQualityIssueType();
-      if (type != null) {
-        xml.append(" locqualityissuetype=\"").append(escapeXMLForAPIOutput(type.toString())).append('"');
+  private void appendRuleMatch(StringBuilder xml, RuleMatch match, String text, ContextTools contextTools) {
+    //
+    // IMPORTANT: people rely on this format, don't change it!
+    //
+    String subId = "";
+    if (match.getRule() instanceof PatternRule) {
+      PatternRule pRule = (PatternRule) match.getRule();
+      if (pRule.getSubId() != null) {
+        subId = " subId=\"" + escapeXMLForAPIOutput(pRule.getSubId()) + "\" ";
       }
-      xml.append("/>\n");
     }
-    return xml.toString();
+    xml.append("<error fromy=\"").append(match.getLine()).append('"')
+            .append(" fromx=\"").append(match.getColumn() - 1).append('"')
+            .append(" toy=\"").append(match.getEndLine()).append('"')
+            .append(" tox=\"").append(match.getEndColumn() - 1).append('"')
+            .append(" ruleId=\"").append(match.getRule().getId()).append('"');
+    String msg = match.getMessage().replaceAll("</?suggestion>", "'");
+    xml.append(subId);
+    xml.append(" msg=\"").append(escapeXMLForAPIOutput(msg)).append('"');
+    String context = contextTools.getContext(match.getFromPos(), match.getToPos(), text);
+    xml.append(" replacements=\"").append(escapeXMLForAPIOutput(StringTools.listToString(
+            match.getSuggestedReplacements(), "#"))).append('"');
+    // get position of error in context and remove artificial marker again:
+    int contextOffset = context.indexOf(START_MARKER);
+    context = context.replaceFirst(START_MARKER, "");
+    context = context.replaceAll("[\n\r]", " ");
+    xml.append(" context=\"").append(StringTools.escapeXML(context)).append('"')
+            .append(" contextoffset=\"").append(contextOffset).append('"')
+            .append(" offset=\"").append(match.getFromPos()).append('"')
+            .append(" errorlength=\"").append(match.getToPos() - match.getFromPos()).append('"');
+    if (match.getRule().getUrl() != null) {
+      xml.append(" url=\"").append(escapeXMLForAPIOutput(match.getRule().getUrl().toString())).append('"');
+    }
+    Category category = match.getRule().getCategory();
+    if (category != null) {
+      xml.append(" category=\"").append(escapeXMLForAPIOutput(category.getName())).append('"');
+    }
+    ITSIssueType type = match.getRule().getLocQualityIssueType();
+    if (type != null) {
+      xml.append(" locqualityissuetype=\"").append(escapeXMLForAPIOutput(type.toString())).append('"');
+    }
+    xml.append("/>\n");
   }
 
   /**
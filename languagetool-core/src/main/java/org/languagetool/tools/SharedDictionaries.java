@@ -0,0 +1,86 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tools;
+
+import morfologik.stemming.Dictionary;
+import org.languagetool.JLanguageTool;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Loads each Morfologik dictionary only once per JVM and shares it between all taggers,
+ * synthesizers and spellers using it, as dictionaries are large and immutable. A dictionary
+ * is only weakly referenced here, so it's unloaded once nothing else uses it anymore.
+ * Thread-safe.
+ * @since 2.6
+ */
+public final class SharedDictionaries {
+
+  private static final ConcurrentMap<String, DictionaryReference> dictionaries = new ConcurrentHashMap<>();
+
+  private SharedDictionaries() {
+  }
+
+  /**
+   * Get the dictionary from the resource directory of the {@link JLanguageTool#getDataBroker() data broker}.
+   * @param filename path in the resource directory, e.g. {@code /en/english.dict}
+   */
+  public static Dictionary getFromResourceDir(String filename) throws IOException {
+    return get(JLanguageTool.getDataBroker().getFromResourceDirAsUrl(filename));
+  }
+
+  /**
+   * Get the dictionary at the given URL, loading it if it's not used yet.
+   */
+  public static Dictionary get(URL url) throws IOException {
+    final String key = url.toExternalForm();
+    DictionaryReference reference = dictionaries.get(key);
+    if (reference == null) {
+      final DictionaryReference newReference = new DictionaryReference();
+      reference = dictionaries.putIfAbsent(key, newReference);
+      if (reference == null) {
+        reference = newReference;
+      }
+    }
+    return reference.get(url);
+  }
+
+  /**
+   * The dictionary of a URL. It's loaded while holding the lock, so it's never loaded twice,
+   * but other dictionaries can be loaded at the same time.
+   */
+  private static class DictionaryReference {
+
+    private WeakReference<Dictionary> dictionary = new WeakReference<>(null);
+
+    synchronized Dictionary get(URL url) throws IOException {
+      Dictionary dict = dictionary.get();
+      if (dict == null) {
+        dict = Dictionary.read(url);
+        dictionary = new WeakReference<>(dict);
+      }
+      return dict;
+    }
+  }
+
+}
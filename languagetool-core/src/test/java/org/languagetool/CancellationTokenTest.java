@@ -0,0 +1,133 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.junit.Test;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.RuleMatch;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class CancellationTokenTest {
+
+  private static final String TEXT = "A sentence. Another sentence. And a third one. And one more.";
+
+  @Test
+  public void testToken() throws InterruptedException {
+    final CancellationToken token = new CancellationToken();
+    assertFalse(token.isCancelled());
+    token.cancel();
+    assertTrue(token.isCancelled());
+    assertFalse(token.isDeadlinePassed());
+
+    final CancellationToken tokenWithDeadline = new CancellationToken(10);
+    assertFalse(tokenWithDeadline.isCancelled());
+    Thread.sleep(20);
+    assertTrue(tokenWithDeadline.isCancelled());
+    assertTrue(tokenWithDeadline.isDeadlinePassed());
+  }
+
+  @Test
+  public void testCancel() throws IOException {
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    assertCancelledAfterFirstSentence(langTool);
+  }
+
+  @Test
+  public void testCancelMultiThreaded() throws IOException {
+    final MultiThreadedJLanguageTool langTool = new MultiThreadedJLanguageTool(new Demo());
+    langTool.setThreadPoolSize(2);
+    langTool.setAnalysisThreadPoolSize(2);
+    assertCancelledAfterFirstSentence(langTool);
+  }
+
+  @Test
+  public void testDeadline() throws IOException {
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    langTool.setCancellationToken(new CancellationToken(0));
+    try {
+      langTool.check(TEXT);
+      fail();
+    } catch (CheckCancelledException expected) {
+      assertEquals("Check deadline has passed", expected.getMessage());
+    }
+  }
+
+  @Test
+  public void testInterrupt() throws IOException {
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    Thread.currentThread().interrupt();
+    try {
+      langTool.check(TEXT);
+      fail();
+    } catch (CheckCancelledException expected) {
+      assertEquals("Checking thread has been interrupted", expected.getMessage());
+    } finally {
+      Thread.interrupted();
+    }
+  }
+
+  private void assertCancelledAfterFirstSentence(JLanguageTool langTool) throws IOException {
+    final CancellationToken token = new CancellationToken();
+    final CancellingRule rule = new CancellingRule(token);
+    langTool.addRule(rule);
+    langTool.setCancellationToken(token);
+    try {
+      langTool.check(TEXT);
+      fail();
+    } catch (CheckCancelledException expected) {
+      assertEquals("Check has been cancelled", expected.getMessage());
+    }
+    assertEquals(1, rule.matchCount);
+    // a new token makes the instance usable again:
+    langTool.disableRule(rule.getId());
+    langTool.setCancellationToken(new CancellationToken());
+    langTool.check(TEXT);
+    assertEquals(4, langTool.getSentenceCount());
+  }
+
+  private static class CancellingRule extends Rule {
+    private final CancellationToken token;
+    private volatile int matchCount;
+    CancellingRule(CancellationToken token) {
+      this.token = token;
+    }
+    @Override
+    public String getId() {
+      return "CANCELLING_RULE";
+    }
+    @Override
+    public String getDescription() {
+      return "A rule that cancels the check";
+    }
+    @Override
+    public RuleMatch[] match(AnalyzedSentence sentence) throws IOException {
+      matchCount++;
+      token.cancel();
+      return new RuleMatch[0];
+    }
+    @Override
+    public void reset() {
+    }
+  }
+
+}
@@ -0,0 +1,170 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.junit.Test;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.GenericUnpairedBracketsRule;
+import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.SentenceWhitespaceRule;
+import org.languagetool.rules.UppercaseSentenceStartRule;
+import org.languagetool.rules.WhitespaceRule;
+import org.languagetool.rules.WordRepeatBeginningRule;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class IncrementalCheckerTest {
+
+  private static final String TEXT = "A small toast. This is  a test (with brackets.\nIt ends here). foo bar.\n\n" +
+          "Second paragraph  here. It has (an open bracket.\n\nThe last  paragraph. lowercase start. " +
+          "Also one. Also two. Also three.";
+
+  @Test
+  public void testSameMatchesAsCompleteText() throws IOException {
+    assertSameMatchesWhileEditing(getLanguageTool(new JLanguageTool(new Demo())));
+  }
+
+  @Test
+  public void testSameMatchesAsCompleteTextMultiThreaded() throws IOException {
+    final MultiThreadedJLanguageTool langTool = new MultiThreadedJLanguageTool(new Demo());
+    langTool.setThreadPoolSize(3);
+    try {
+      assertSameMatchesWhileEditing(getLanguageTool(langTool));
+    } finally {
+      langTool.shutdown();
+    }
+  }
+
+  private void assertSameMatchesWhileEditing(JLanguageTool langTool) throws IOException {
+    final IncrementalChecker checker = new IncrementalChecker(langTool);
+    String text = TEXT;
+    assertSameMatches(langTool, checker, text);
+    assertSameMatches(langTool, checker, text);
+    // typing in the middle of a sentence:
+    text = text.replace("a test", "a  long test");
+    assertSameMatches(langTool, checker, text);
+    // closing a bracket of another paragraph:
+    text = text.replace("an open bracket.", "an open) bracket.");
+    assertSameMatches(langTool, checker, text);
+    // joining two sentences:
+    text = text.replace("toast. This", "toast this");
+    assertSameMatches(langTool, checker, text);
+    // splitting a sentence:
+    text = text.replace("toast this", "toast. this");
+    assertSameMatches(langTool, checker, text);
+    // inserting a new first line and so moving all lines and columns:
+    text = "New  start.\n" + text;
+    assertSameMatches(langTool, checker, text);
+    // appending and deleting at the end:
+    text = text + " More text  here.";
+    assertSameMatches(langTool, checker, text);
+    text = text.substring(0, text.length() - 20);
+    assertSameMatches(langTool, checker, text);
+    // removing a paragraph break:
+    text = text.replace("foo bar.\n\nSecond", "foo bar. Second");
+    assertSameMatches(langTool, checker, text);
+    // changing the sentence whose beginning later sentences repeat:
+    text = text.replace("Also one.", "So one.");
+    assertSameMatches(langTool, checker, text);
+    text = text.replace("So one.", "Also one.");
+    assertSameMatches(langTool, checker, text);
+    // replacing everything:
+    text = "Something  else.";
+    assertSameMatches(langTool, checker, text);
+    text = "";
+    assertSameMatches(langTool, checker, text);
+    text = TEXT;
+    assertSameMatches(langTool, checker, text);
+  }
+
+  @Test
+  public void testReset() throws IOException {
+    final JLanguageTool langTool = getLanguageTool(new JLanguageTool(new Demo()));
+    final IncrementalChecker checker = new IncrementalChecker(langTool);
+    assertSameMatches(langTool, checker, TEXT);
+    langTool.disableRule("WHITESPACE_RULE");
+    checker.reset();
+    assertSameMatches(langTool, checker, TEXT);
+  }
+
+  @Test
+  public void testOnlyChangedSentencesAnalyzed() throws IOException {
+    final List<String> analyzed = new ArrayList<>();
+    final JLanguageTool langTool = new JLanguageTool(new Demo()) {
+      @Override
+      public AnalyzedSentence getAnalyzedSentence(String sentence) throws IOException {
+        analyzed.add(sentence);
+        return super.getAnalyzedSentence(sentence);
+      }
+    };
+    final List<String> matched = new ArrayList<>();
+    langTool.addRule(new WhitespaceRule(TestTools.getEnglishMessages(), new Demo()) {
+      @Override
+      public RuleMatch[] match(AnalyzedSentence text) {
+        matched.add(text.getTokens()[1].getToken());
+        return super.match(text);
+      }
+    });
+    final IncrementalChecker checker = new IncrementalChecker(langTool);
+    checker.check("One. Two. Three. Four. Five. Six. Seven. Eight.");
+    assertEquals(8, analyzed.size());
+    analyzed.clear();
+    matched.clear();
+    checker.check("One. Two. Three and a half. Four. Five. Six. Seven. Eight.");
+    // the neighbours of the changed sentence, and the sentences whose matches may depend on it:
+    assertEquals("[Two. , Three and a half. , Four. , Five. , Six. ]", analyzed.toString());
+    // the sentences before them only bring the rules into their state:
+    assertEquals("[One, Two, Three, Four, Five, Six]", matched.toString());
+    analyzed.clear();
+    matched.clear();
+    checker.check("One. Two. Three and a half. Four. Five. Six. Seven. Eight.");
+    assertEquals("[]", analyzed.toString());
+    assertEquals("[]", matched.toString());
+  }
+
+  private JLanguageTool getLanguageTool(JLanguageTool langTool) throws IOException {
+    langTool.activateDefaultPatternRules();
+    langTool.addRule(new WhitespaceRule(TestTools.getEnglishMessages(), new Demo()));
+    langTool.addRule(new UppercaseSentenceStartRule(TestTools.getEnglishMessages(), new Demo()));
+    langTool.addRule(new GenericUnpairedBracketsRule(TestTools.getEnglishMessages(), new Demo()));
+    // rules that keep state across sentences:
+    langTool.addRule(new WordRepeatBeginningRule(TestTools.getEnglishMessages(), new Demo()));
+    langTool.addRule(new SentenceWhitespaceRule(TestTools.getEnglishMessages()));
+    return langTool;
+  }
+
+  private void assertSameMatches(JLanguageTool langTool, IncrementalChecker checker, String text) throws IOException {
+    final List<String> expected = toString(langTool.check(text));
+    assertEquals(expected, toString(checker.check(text)));
+  }
+
+  private List<String> toString(List<RuleMatch> matches) {
+    final List<String> result = new ArrayList<>();
+    for (RuleMatch match : matches) {
+      result.add(match + "/" + match.getOffset() + "/" + match.getLine() + ":" + match.getColumn()
+              + "-" + match.getEndLine() + ":" + match.getEndColumn());
+    }
+    return result;
+  }
+
+}
@@ -26,6 +26,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -64,6 +68,63 @@ public class MultiThreadedJLanguageToolTest {
     assertThat(analyzedSentences.get(1).getTokensWithoutWhitespace().length, is(5));
   }
   
+  @Test
+  public void testParallelTextAnalysis() throws IOException {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 50; i++) {
+      sb.append("This is a sentence. ");
+    }
+    final String input = sb.toString();
+    final List<AnalyzedSentence> expected = new JLanguageTool(new Demo()).analyzeText(input);
+    final MultiThreadedJLanguageTool tool = new MultiThreadedJLanguageTool(new Demo());
+    tool.setAnalysisThreadPoolSize(2);
+    final List<AnalyzedSentence> analyzedSentences = tool.analyzeText(input);
+    assertThat(analyzedSentences.size(), is(50));
+    assertThat(analyzedSentences.toString(), is(expected.toString()));
+    assertTrue(analyzedSentences.get(49).getTokens()[analyzedSentences.get(49).getTokens().length - 1].isParaEnd());
+  }
+
+  @Test
+  public void testConfigurableAnalysisThreadPoolSize() throws IOException {
+    final MultiThreadedJLanguageTool tool = new MultiThreadedJLanguageTool(new Demo());
+    tool.setThreadPoolSize(3);
+    Assert.assertEquals(3, tool.getAnalysisThreadPoolSize());
+    tool.setAnalysisThreadPoolSize(1);
+    Assert.assertEquals(1, tool.getAnalysisThreadPoolSize());
+    tool.setAnalysisThreadPoolSize(0);
+    Assert.assertEquals(3, tool.getAnalysisThreadPoolSize());
+  }
+
+  @Test
+  public void testGivenExecutorService() throws IOException {
+    final ExecutorService executorService = Executors.newFixedThreadPool(2);
+    try {
+      final MultiThreadedJLanguageTool tool1 = new MultiThreadedJLanguageTool(new Demo(), null, executorService);
+      final MultiThreadedJLanguageTool tool2 = new MultiThreadedJLanguageTool(new Demo(), null, executorService);
+      assertThat(getRuleMatchIds(tool1), is(getRuleMatchIds(tool2)));
+      tool1.shutdown();
+      Assert.assertFalse(executorService.isShutdown());
+      Assert.assertSame(executorService, tool2.getExecutorService());
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testExecutorServiceIsReused() throws IOException {
+    final MultiThreadedJLanguageTool tool = new MultiThreadedJLanguageTool(new Demo());
+    final List<RuleMatch> matches = tool.check("A small toast. Foo go bar.");
+    final ExecutorService executorService = tool.getExecutorService();
+    assertThat(tool.check("A small toast. Foo go bar.").size(), is(matches.size()));
+    Assert.assertSame(executorService, tool.getExecutorService());
+    tool.shutdown();
+    Assert.assertTrue(executorService.isShutdown());
+    try {
+      tool.check("A test.");
+      Assert.fail();
+    } catch (IllegalStateException expected) {}
+  }
+
   @Test
   public void testConfigurableThreadPoolSize() throws IOException {
     MultiThreadedJLanguageTool tool = new MultiThreadedJLanguageTool(new Demo());
@@ -82,6 +143,56 @@ public class MultiThreadedJLanguageToolTest {
     Assert.assertEquals(Runtime.getRuntime().availableProcessors(), tool.getThreadPoolSize());
   }
 
+  @Test
+  public void testSplitBySentences() throws IOException {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 20; i++) {
+      sb.append("A small toast. No error here.\nFoo go bar.\n\nFirst goes last there, please! ");
+    }
+    final String input = sb.toString();
+    final JLanguageTool tool = new JLanguageTool(new Demo());
+    tool.activateDefaultPatternRules();
+    final MultiThreadedJLanguageTool mtTool = new MultiThreadedJLanguageTool(new Demo());
+    mtTool.activateDefaultPatternRules();
+    mtTool.setThreadPoolSize(3);
+    mtTool.setSplitBySentences(true);
+    final List<RuleMatch> expected = tool.check(input);
+    final List<RuleMatch> matches = mtTool.check(input);
+    assertTrue(expected.size() >= 40);
+    Assert.assertEquals(toString(expected), toString(matches));
+  }
+
+  @Test
+  public void testCheckTimingListener() throws IOException {
+    final CountingTimingListener listener = new CountingTimingListener();
+    final MultiThreadedJLanguageTool tool = new MultiThreadedJLanguageTool(new Demo());
+    tool.setThreadPoolSize(2);
+    tool.setAnalysisThreadPoolSize(2);
+    tool.setCheckTimingListener(listener);
+    tool.addRule(new WhitespaceRule(TestTools.getEnglishMessages(), new Demo()));
+    final int checks = RuleTimings.SAMPLE_INTERVAL;
+    for (int i = 0; i < checks; i++) {
+      tool.check("A small toast. No error here. Foo go bar.");
+    }
+    Assert.assertEquals(checks, listener.getCount(CheckTimingListener.Stage.SENTENCE_TOKENIZING));
+    Assert.assertEquals(3 * checks, listener.getCount(CheckTimingListener.Stage.TAGGING));
+    Assert.assertEquals(3 * checks, listener.getCount(CheckTimingListener.Stage.DISAMBIGUATION));
+    // each of the two threads checks all sentences against its part of the rules:
+    Assert.assertEquals(6 * checks, listener.getCount(CheckTimingListener.Stage.RULE_MATCHING));
+    // rules are only timed for a sample of the sentences:
+    Assert.assertTrue(listener.ruleCount.get() > 0);
+    Assert.assertTrue(listener.ruleCount.get() < 6 * checks * tool.getAllRules().size());
+  }
+
+  private List<String> toString(List<RuleMatch> matches) {
+    final List<String> result = new ArrayList<>();
+    for (RuleMatch match : matches) {
+      result.add(match.getRule().getId() + "/" + match.getFromPos() + "-" + match.getToPos()
+              + "/" + match.getLine() + ":" + match.getColumn() + "-" + match.getEndLine() + ":" + match.getEndColumn());
+    }
+    return result;
+  }
+
   private List<String> getRuleMatchIds(JLanguageTool langTool) throws IOException {
     langTool.activateDefaultPatternRules();
     final String input = "A small toast. No error here. Foo go bar. First goes last there, please!";
@@ -93,6 +204,23 @@ public class MultiThreadedJLanguageToolTest {
     return ruleMatchIds;
   }
 
+  private static class CountingTimingListener implements CheckTimingListener {
+    private final AtomicIntegerArray stageCounts = new AtomicIntegerArray(Stage.values().length);
+    private final AtomicInteger ruleCount = new AtomicInteger();
+    @Override
+    public void stageDone(Stage stage, long nanos) {
+      Assert.assertTrue(nanos >= 0);
+      stageCounts.incrementAndGet(stage.ordinal());
+    }
+    @Override
+    public void ruleDone(Rule rule, long nanos) {
+      ruleCount.incrementAndGet();
+    }
+    int getCount(Stage stage) {
+      return stageCounts.get(stage.ordinal());
+    }
+  }
+
   @Test
   public void testTwoRulesOnly() throws IOException {
     MultiThreadedJLanguageTool langTool = new MultiThreadedJLanguageTool(new Language() {
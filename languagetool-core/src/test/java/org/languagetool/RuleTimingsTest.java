@@ -0,0 +1,190 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.junit.Test;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.RuleMatch;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RuleTimingsTest {
+
+  @Test
+  public void testSampling() {
+    final RuleTimings timings = new RuleTimings();
+    int sampled = 0;
+    for (int i = 0; i < 10 * RuleTimings.SAMPLE_INTERVAL; i++) {
+      if (timings.sampleNextSentence()) {
+        sampled++;
+      }
+    }
+    assertEquals(10, sampled);
+  }
+
+  @Test
+  public void testAverage() {
+    final RuleTimings timings = new RuleTimings();
+    final Rule fastRule = new SlowRule(0);
+    final Rule slowRule = new SlowRule(0);
+    assertEquals(0, timings.getAverageNanos(fastRule));
+    for (int i = 0; i < 5; i++) {
+      timings.add(fastRule, 100);
+      timings.add(slowRule, 1000 + i * 10);
+    }
+    assertEquals(5, timings.getSampleCount(fastRule));
+    assertEquals(100, timings.getAverageNanos(fastRule));
+    assertEquals(1020, timings.getAverageNanos(slowRule));
+    final Set<Rule> slowRules = timings.getRulesSlowerThan(500, 5);
+    assertEquals(1, slowRules.size());
+    assertTrue(slowRules.contains(slowRule));
+    assertTrue(timings.getRulesSlowerThan(500, 6).isEmpty());
+  }
+
+  @Test
+  public void testTimeBudget() throws IOException {
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    // much slower than the budget, so the analysis of the text doesn't matter even on a busy machine:
+    final SlowRule slowRule = new SlowRule(300);
+    langTool.addRule(slowRule);
+    final String text = "A sentence. Another sentence. And a third one.";
+    langTool.check(text);
+    assertFalse(langTool.isPartialResult());
+    assertEquals(3, slowRule.matchCount);
+
+    langTool.setTimeBudgetMillis(200);
+    slowRule.matchCount = 0;
+    langTool.check(text);
+    // the budget is used up after the first sentence:
+    assertTrue(langTool.isPartialResult());
+    assertEquals(1, slowRule.matchCount);
+
+    langTool.setTimeBudgetMillis(0);
+    langTool.check(text);
+    assertFalse(langTool.isPartialResult());
+  }
+
+  @Test
+  public void testSlowRuleSkipped() throws IOException {
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    final SlowRule slowRule = new SlowRule(2);
+    langTool.addRule(slowRule);
+    // enough sentences so the rule gets timed for a few of them:
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 6 * RuleTimings.SAMPLE_INTERVAL; i++) {
+      sb.append("A sentence. ");
+    }
+    langTool.check(sb.toString());
+    assertTrue(langTool.getRuleTimings().getSampleCount(slowRule) >= 5);
+    assertTrue(langTool.getRuleTimings().getAverageNanos(slowRule) >= 2_000_000);
+
+    langTool.setTimeBudgetMillis(15);
+    slowRule.matchCount = 0;
+    final List<RuleMatch> matches = langTool.check("A sentence.");
+    assertTrue(langTool.isPartialResult());
+    assertEquals(0, slowRule.matchCount);
+    assertTrue(matches.isEmpty());
+  }
+
+  @Test
+  public void testRecentTime() {
+    final RuleTimings timings = new RuleTimings();
+    final Rule rule = new SlowRule(0);
+    assertEquals(-1, timings.getRecentNanos(rule));
+    for (int i = 0; i < 5; i++) {
+      timings.add(rule, 1000);
+    }
+    assertEquals(1000, timings.getRecentNanos(rule));
+    assertEquals(1, timings.getRulesSlowerThan(500, 5).size());
+    for (int i = 0; i < 5; i++) {
+      timings.add(rule, 100);
+    }
+    assertTrue(timings.getRecentNanos(rule) < 500);
+    assertTrue(timings.getRulesSlowerThan(500, 5).isEmpty());
+    // the average still includes the slow samples:
+    assertEquals(550, timings.getAverageNanos(rule));
+  }
+
+  @Test
+  public void testSlowRuleMatchedAgainWhenFaster() throws IOException {
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    final SlowRule slowRule = new SlowRule(0);
+    langTool.addRule(slowRule);
+    // the rule was slow once, e.g. because something had to be loaded:
+    for (int i = 0; i < 5; i++) {
+      langTool.getRuleTimings().add(slowRule, 200_000_000);
+    }
+    // a large budget, so the analysis of the text doesn't use it up even on a busy machine:
+    langTool.setTimeBudgetMillis(1000);
+    langTool.check("A sentence.");
+    assertTrue(langTool.isPartialResult());
+    assertEquals(0, slowRule.matchCount);
+
+    // the rule is skipped, except for the sampled sentences, where it's timed again:
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 8 * RuleTimings.SAMPLE_INTERVAL; i++) {
+      sb.append("A sentence. ");
+    }
+    langTool.check(sb.toString());
+    assertTrue(slowRule.matchCount > 0);
+    assertTrue(langTool.getRuleTimings().getRecentNanos(slowRule) < 100_000_000);
+
+    slowRule.matchCount = 0;
+    langTool.check("A sentence.");
+    assertFalse(langTool.isPartialResult());
+    assertEquals(1, slowRule.matchCount);
+  }
+
+  private static class SlowRule extends Rule {
+    private final long sleepMillis;
+    private int matchCount;
+    SlowRule(long sleepMillis) {
+      this.sleepMillis = sleepMillis;
+    }
+    @Override
+    public String getId() {
+      return "SLOW_RULE";
+    }
+    @Override
+    public String getDescription() {
+      return "A rule that needs some time";
+    }
+    @Override
+    public RuleMatch[] match(AnalyzedSentence sentence) throws IOException {
+      matchCount++;
+      try {
+        Thread.sleep(sleepMillis);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      return new RuleMatch[0];
+    }
+    @Override
+    public void reset() {
+    }
+  }
+
+}
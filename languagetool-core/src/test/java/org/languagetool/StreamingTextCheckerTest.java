@@ -0,0 +1,144 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool;
+
+import org.junit.Test;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.GenericUnpairedBracketsRule;
+import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.UppercaseSentenceStartRule;
+import org.languagetool.rules.WhitespaceRule;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingTextCheckerTest {
+
+  @Test
+  public void testSameMatchesAsCompleteText() throws IOException {
+    assertSameMatches(new JLanguageTool(new Demo()));
+  }
+
+  @Test
+  public void testSameMatchesAsCompleteTextMultiThreaded() throws IOException {
+    final MultiThreadedJLanguageTool langTool = new MultiThreadedJLanguageTool(new Demo());
+    langTool.setThreadPoolSize(2);
+    assertSameMatches(langTool);
+  }
+
+  @Test
+  public void testEmptyText() throws IOException {
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    final List<RuleMatch> matches = new ArrayList<>();
+    langTool.check(new StringReader(""), new CollectingListener(matches));
+    assertTrue(matches.isEmpty());
+  }
+
+  @Test
+  public void testLongParagraphIsPassedOnInParts() throws IOException {
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    langTool.addRule(new WhitespaceRule(TestTools.getEnglishMessages(), new Demo()));
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 3 * StreamingTextChecker.MAX_WINDOW_SENTENCES; i++) {
+      sb.append("This is  a test. ");
+    }
+    final String text = sb.toString();
+    final CountingReader reader = new CountingReader(text);
+    final List<Integer> readCountAtMatch = new ArrayList<>();
+    langTool.check(reader, new RuleMatchListener() {
+      @Override
+      public void matchFound(RuleMatch ruleMatch) {
+        readCountAtMatch.add(reader.readCount);
+      }
+    });
+    assertEquals(3 * StreamingTextChecker.MAX_WINDOW_SENTENCES, readCountAtMatch.size());
+    assertTrue("matches of a paragraph without end are not held back until the end of the text",
+            readCountAtMatch.get(0) < text.length());
+  }
+
+  private void assertSameMatches(JLanguageTool langTool) throws IOException {
+    langTool.activateDefaultPatternRules();
+    langTool.addRule(new WhitespaceRule(TestTools.getEnglishMessages(), new Demo()));
+    langTool.addRule(new UppercaseSentenceStartRule(TestTools.getEnglishMessages(), new Demo()));
+    langTool.addRule(new GenericUnpairedBracketsRule(TestTools.getEnglishMessages(), new Demo()));
+    final String text = getText();
+    final List<RuleMatch> expected = langTool.check(text);
+    final int expectedSentenceCount = langTool.getSentenceCount();
+    assertTrue(expectedSentenceCount > StreamingTextChecker.MAX_WINDOW_SENTENCES);
+    final List<RuleMatch> matches = new ArrayList<>();
+    langTool.check(new StringReader(text), new CollectingListener(matches));
+    assertEquals(expectedSentenceCount, langTool.getSentenceCount());
+    assertEquals(toString(expected), toString(matches));
+  }
+
+  // short paragraphs, and a long one that doesn't fit into one window, with errors
+  // on different lines and brackets that are closed in a later sentence:
+  private String getText() {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 40; i++) {
+      sb.append("A small toast. This is  a test (with brackets.\nIt ends here). foo bar.\n\n");
+    }
+    for (int i = 0; i < StreamingTextChecker.MAX_WINDOW_SENTENCES; i++) {
+      sb.append(i % 7 == 0 ? "This (is  an open bracket. " : "Closed here). ");
+    }
+    sb.append("\n\nThe last  paragraph. lowercase start");
+    return sb.toString();
+  }
+
+  private List<String> toString(List<RuleMatch> matches) {
+    final List<String> result = new ArrayList<>();
+    for (RuleMatch match : matches) {
+      result.add(match + "/" + match.getOffset() + "/" + match.getLine() + ":" + match.getColumn()
+              + "-" + match.getEndLine() + ":" + match.getEndColumn());
+    }
+    return result;
+  }
+
+  private static class CountingReader extends StringReader {
+    private int readCount;
+    CountingReader(String s) {
+      super(s);
+    }
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+      final int count = super.read(cbuf, off, len);
+      if (count > 0) {
+        readCount += count;
+      }
+      return count;
+    }
+  }
+
+  private static class CollectingListener implements RuleMatchListener {
+    private final List<RuleMatch> matches;
+    CollectingListener(List<RuleMatch> matches) {
+      this.matches = matches;
+    }
+    @Override
+    public void matchFound(RuleMatch ruleMatch) {
+      matches.add(ruleMatch);
+    }
+  }
+
+}
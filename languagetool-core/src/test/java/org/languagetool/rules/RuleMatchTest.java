@@ -0,0 +1,148 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.patterns.Element;
+import org.languagetool.rules.patterns.PatternRule;
+
+public class RuleMatchTest extends TestCase {
+
+  public void testLazySuggestions() {
+    final RuleMatch match = new RuleMatch(makeRule(), 0, 5, "msg");
+    final CountingSupplier supplier = new CountingSupplier();
+    match.setLazySuggestedReplacements(supplier);
+    assertEquals(0, supplier.count);
+    assertEquals(Arrays.asList("foo", "bar"), match.getSuggestedReplacements());
+    assertEquals(Arrays.asList("foo", "bar"), match.getSuggestedReplacements());
+    assertEquals(1, supplier.count);
+  }
+
+  public void testCopyKeepsSuggestionsLazy() {
+    final RuleMatch match = new RuleMatch(makeRule(), 0, 5, "msg");
+    final CountingSupplier supplier = new CountingSupplier();
+    match.setLazySuggestedReplacements(supplier);
+    final RuleMatch copy1 = new RuleMatch(makeRule(), 10, 15, "msg");
+    copy1.copySuggestedReplacementsFrom(match);
+    final RuleMatch copy2 = new RuleMatch(makeRule(), 20, 25, "msg");
+    copy2.copySuggestedReplacementsFrom(copy1);
+    assertEquals(0, supplier.count);
+    assertEquals(Arrays.asList("foo", "bar"), copy2.getSuggestedReplacements());
+    assertEquals(Arrays.asList("foo", "bar"), copy1.getSuggestedReplacements());
+    assertEquals(Arrays.asList("foo", "bar"), match.getSuggestedReplacements());
+    assertEquals(1, supplier.count);
+  }
+
+  public void testSetSuggestionsReplacesLazySuggestions() {
+    final RuleMatch match = new RuleMatch(makeRule(), 0, 5, "msg");
+    final CountingSupplier supplier = new CountingSupplier();
+    match.setLazySuggestedReplacements(supplier);
+    match.setSuggestedReplacements(Arrays.asList("blah"));
+    assertEquals(Arrays.asList("blah"), match.getSuggestedReplacements());
+    assertEquals(0, supplier.count);
+  }
+
+  public void testCopyWithPosition() {
+    final RuleMatch match = new RuleMatch(makeRule(), 2, 5, "msg");
+    match.setOffset(2);
+    match.setLine(0);
+    match.setEndLine(1);
+    match.setColumn(3);
+    match.setEndColumn(2);
+    match.setSuggestedReplacements(Arrays.asList("foo"));
+    final RuleMatch copy = match.copyWithPosition(12, 15, 4, 6);
+    assertEquals(12, copy.getFromPos());
+    assertEquals(15, copy.getToPos());
+    assertEquals(12, copy.getOffset());
+    assertEquals(4, copy.getLine());
+    assertEquals(5, copy.getEndLine());
+    // only the first line is moved to the column in which the part starts:
+    assertEquals(8, copy.getColumn());
+    assertEquals(2, copy.getEndColumn());
+    assertEquals(Arrays.asList("foo"), copy.getSuggestedReplacements());
+    assertEquals(match.getMessage(), copy.getMessage());
+  }
+
+  public void testSuggestionsOfCheck() throws IOException {
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    final LazyRule rule = new LazyRule();
+    langTool.addRule(rule);
+    final List<RuleMatch> matches = langTool.check("A sentence.");
+    assertEquals(1, matches.size());
+    assertEquals(0, rule.supplier.count);
+    assertEquals(Arrays.asList("foo", "bar"), matches.get(0).getSuggestedReplacements());
+    assertEquals(1, rule.supplier.count);
+  }
+
+  public void testSuggestionsDisabled() throws IOException {
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    langTool.setSuggestionsEnabled(false);
+    final LazyRule rule = new LazyRule();
+    langTool.addRule(rule);
+    final List<RuleMatch> matches = langTool.check("A sentence.");
+    assertEquals(1, matches.size());
+    assertTrue(matches.get(0).getSuggestedReplacements().isEmpty());
+    assertEquals(0, rule.supplier.count);
+  }
+
+  private PatternRule makeRule() {
+    return new PatternRule("id1", Language.DEMO, new ArrayList<Element>(), "desc", "msg", "shortMsg");
+  }
+
+  private static class LazyRule extends Rule {
+    private final CountingSupplier supplier = new CountingSupplier();
+    @Override
+    public String getId() {
+      return "LAZY_RULE";
+    }
+    @Override
+    public String getDescription() {
+      return "A rule with lazy suggestions";
+    }
+    @Override
+    public RuleMatch[] match(AnalyzedSentence sentence) {
+      final RuleMatch match = new RuleMatch(this, 0, 1, "msg");
+      match.setLazySuggestedReplacements(supplier);
+      return new RuleMatch[] { match };
+    }
+    @Override
+    public void reset() {
+    }
+  }
+
+  private static class CountingSupplier implements SuggestionSupplier {
+    private int count;
+    @Override
+    public List<String> getSuggestions() {
+      count++;
+      return new ArrayList<>(Arrays.asList("foo", "bar"));
+    }
+  }
+
+}
@@ -0,0 +1,133 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.junit.Test;
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.JLanguageTool;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.IncorrectExample;
+import org.languagetool.rules.Rule;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PatternRuleIndexTest {
+
+  @Test
+  public void testCandidateRules() throws IOException {
+    final PatternRule twoWords = makeRule("TWO_WORDS", new Element("foo", false, false, false), new Element("bar", false, false, false));
+    final PatternRule regex = makeRule("REGEX", new Element("fo+", false, true, false));
+    final PatternRule lemma = makeRule("LEMMA", new Element("bar", false, false, true));
+    final PatternRule index = makeRule("INDEX", new Element("bar", false, false, false));
+    final PatternRuleIndex ruleIndex = new PatternRuleIndex(Arrays.<Rule>asList(twoWords, regex, lemma, index));
+
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    final PatternRuleIndex.SentenceFilter filter1 = ruleIndex.getFilter(langTool.getAnalyzedSentence("This is Bar."));
+    assertEquals(2, filter1.getCandidates().size());
+    assertTrue(filter1.getCandidates().contains(lemma));
+    assertTrue(filter1.getCandidates().contains(index));
+    assertTrue(filter1.canBeIgnored(twoWords));
+    assertTrue(filter1.canBeIgnored(regex));  // no token matches the regex
+    assertFalse(filter1.canBeIgnored(lemma));
+
+    final PatternRuleIndex.SentenceFilter filter2 = ruleIndex.getFilter(langTool.getAnalyzedSentence("This is foo and bar."));
+    assertEquals(3, filter2.getCandidates().size());
+    assertFalse(filter2.canBeIgnored(twoWords));
+    assertFalse(filter2.canBeIgnored(regex));
+
+    final PatternRuleIndex.SentenceFilter filter3 = ruleIndex.getFilter(langTool.getAnalyzedSentence("Nothing here."));
+    assertEquals(0, filter3.getCandidates().size());
+  }
+
+  @Test
+  public void testFirstElement() throws IOException {
+    final Element optional = new Element("foo", false, false, false);
+    optional.setMinOccurrence(0);
+    final PatternRule optionalFirst = makeRule("OPTIONAL", optional, new Element("ba.", false, true, false));
+    final PatternRule regex1 = makeRule("REGEX1", new Element("fo+", false, true, false));
+    final PatternRule regex2 = makeRule("REGEX2", new Element("fo+", false, true, false), new Element("bar", false, false, false));
+    final PatternRule caseSensitive = makeRule("CASE", new Element("Fo+", true, true, false));
+    final PatternRuleIndex ruleIndex = new PatternRuleIndex(Arrays.<Rule>asList(optionalFirst, regex1, regex2, caseSensitive));
+
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    final PatternRuleIndex.SentenceFilter filter1 = ruleIndex.getFilter(langTool.getAnalyzedSentence("This is bar."));
+    assertFalse(filter1.canBeIgnored(optionalFirst));
+    assertTrue(filter1.canBeIgnored(regex1));
+    assertTrue(filter1.canBeIgnored(regex2));
+    assertTrue(filter1.canBeIgnored(caseSensitive));
+
+    final PatternRuleIndex.SentenceFilter filter2 = ruleIndex.getFilter(langTool.getAnalyzedSentence("This is foo."));
+    assertFalse(filter2.canBeIgnored(regex1));
+    assertTrue(filter2.canBeIgnored(regex2));
+    assertTrue(filter2.canBeIgnored(caseSensitive));
+  }
+
+  @Test
+  public void testSameResultAsMatching() throws IOException {
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    langTool.activateDefaultPatternRules();
+    final List<Rule> rules = langTool.getAllRules();
+    final PatternRuleIndex ruleIndex = new PatternRuleIndex(rules);
+    final List<String> sentences = new ArrayList<>(Arrays.asList("A small toast.", "No error here.", "Foo go bar.", "First goes last there, please!"));
+    for (Rule rule : rules) {
+      for (IncorrectExample example : rule.getIncorrectExamples()) {
+        sentences.add(example.getExample().replaceAll("</?marker>", ""));
+      }
+    }
+    int ignored = 0;
+    for (String text : sentences) {
+      final AnalyzedSentence sentence = langTool.getAnalyzedSentence(text);
+      final PatternRuleIndex.SentenceFilter filter = ruleIndex.getFilter(sentence);
+      for (Rule rule : rules) {
+        if (rule instanceof PatternRule) {
+          final PatternRule patternRule = (PatternRule) rule;
+          if (patternRule.canBeIgnoredFor(sentence)) {
+            assertTrue(filter.canBeIgnored(patternRule));
+          }
+          if (filter.canBeIgnored(patternRule)) {
+            assertEquals(rule.getId() + ": " + text, 0, patternRule.match(sentence).length);
+            ignored++;
+          }
+        }
+      }
+    }
+    assertTrue(ignored > 0);
+  }
+
+  @Test
+  public void testRuleNotInIndex() throws IOException {
+    final PatternRuleIndex ruleIndex = new PatternRuleIndex(Collections.<Rule>emptyList());
+    final PatternRule rule = makeRule("FOO", new Element("foo", false, false, false));
+    final AnalyzedSentence sentence = new JLanguageTool(new Demo()).getAnalyzedSentence("This is bar.");
+    assertTrue(ruleIndex.getFilter(sentence).canBeIgnored(rule));
+  }
+
+  private PatternRule makeRule(String id, Element... elements) {
+    return new PatternRule(id, new Demo(), Arrays.asList(elements), "description", "message", "short message");
+  }
+
+}
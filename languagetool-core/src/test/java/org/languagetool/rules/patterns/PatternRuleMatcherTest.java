@@ -403,6 +403,36 @@ public class PatternRuleMatcherTest {
     assertPosition(matches2[1], 5, 14);
   }
 
+  @Test
+  public void testReuseForSeveralSentences() throws Exception {
+    final PatternRule rule = getPatternRule("a b");
+    final RuleMatch[] matches1 = rule.match(langTool.getAnalyzedSentence("x x x x a b x x a b"));
+    assertThat(matches1.length, is(2));
+    assertPosition(matches1[1], 16, 19);
+    assertThat(rule.match(langTool.getAnalyzedSentence("a x")).length, is(0));
+    final RuleMatch[] matches2 = rule.match(langTool.getAnalyzedSentence("a b"));
+    assertThat(matches2.length, is(1));
+    assertPosition(matches2[0], 0, 3);
+    final RuleMatch[] matches3 = rule.match(langTool.getAnalyzedSentence("x x x x a b x x a b"));
+    assertThat(Arrays.toString(matches3), is(Arrays.toString(matches1)));
+  }
+
+  @Test
+  public void testReuseAfterVeryLongSentence() throws Exception {
+    final PatternRule rule = getPatternRule("a b");
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 500; i++) {
+      sb.append("x ");
+    }
+    sb.append("a b");
+    final RuleMatch[] matches1 = rule.match(langTool.getAnalyzedSentence(sb.toString()));
+    assertThat(matches1.length, is(1));
+    assertPosition(matches1[0], 1000, 1003);
+    final RuleMatch[] matches2 = rule.match(langTool.getAnalyzedSentence("x a b"));
+    assertThat(matches2.length, is(1));
+    assertPosition(matches2[0], 2, 5);
+  }
+
   private RuleMatch[] getMatches(String input, PatternRuleMatcher matcher) throws IOException {
     return matcher.match(langTool.getAnalyzedSentence(input));
   }
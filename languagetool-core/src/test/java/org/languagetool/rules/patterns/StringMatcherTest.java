@@ -0,0 +1,68 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StringMatcherTest {
+
+  private static final String[] REGEXES = {
+    "foo", "foo|bar", "(foo|bar)", "(?:foo|bar)", "a|b|c|", "NN.*", "NN|NN:.*", "DT|WDT|JJ|NN.*", ".*",
+    "straße|IST", "ǅ|σ", "foo bar|x-y", "fo+", "[a-z]+", "(foo)|(bar)", "foo\\.", "a.b", "NN:UN?",
+  };
+
+  private static final String[] STRINGS = {
+    "", "foo", "FOO", "Foo", "bar", "foobar", "a", "B", "c", "d", "NN", "NNS", "NN:U", "NN:UN", "NN\n", "NN x",
+    "DT", "dt", "JJR", "STRASSE", "Straße", "ist", "İST", "ǆ", "Ǆ", "Σ", "ς", "foo bar", "FOO BAR", "X-Y", "fooo",
+    "foo.", "axb", "\n", "NN:", "𐐀", "𐐨",
+  };
+
+  @Test
+  public void testSameResultAsPattern() {
+    for (String regex : REGEXES) {
+      for (boolean caseSensitive : new boolean[] {true, false}) {
+        final Pattern pattern = Pattern.compile(caseSensitive ? regex : "(?iu)" + regex);
+        for (boolean memoize : new boolean[] {true, false}) {
+          final StringMatcher matcher = StringMatcher.create(regex, caseSensitive, memoize);
+          for (String s : STRINGS) {
+            final boolean expected = pattern.matcher(s).matches();
+            assertEquals("'" + regex + "' (case-sensitive: " + caseSensitive + ") on '" + s + "'", expected, matcher.matches(s));
+            // memoized result:
+            assertEquals(expected, matcher.matches(s));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSimpleExpressions() {
+    assertFalse(StringMatcher.create("foo|bar", false, false).usesPattern());
+    assertFalse(StringMatcher.create("(NN|NN:.*)", true, false).usesPattern());
+    assertTrue(StringMatcher.create("fo+", false, false).usesPattern());
+    assertTrue(StringMatcher.create("NN:UN?", true, false).usesPattern());
+  }
+
+}
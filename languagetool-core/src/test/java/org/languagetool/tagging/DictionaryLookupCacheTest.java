@@ -0,0 +1,71 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class DictionaryLookupCacheTest {
+
+  @Test
+  public void testHitsAndMisses() {
+    final DictionaryLookupCache cache = new DictionaryLookupCache(1000);
+    final List<DictionaryLookupCache.Reading> readings =
+            Collections.singletonList(new DictionaryLookupCache.Reading("NN", "house"));
+    assertEquals(0.0, cache.getHitRate(), 0.0);
+    assertNull(cache.get("houses"));
+    cache.put("houses", readings);
+    assertSame(readings, cache.get("houses"));
+    assertSame(readings, cache.get("houses"));
+    assertNull(cache.get("mouse"));
+    assertEquals(2, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+    assertEquals(0.5, cache.getHitRate(), 0.0);
+    assertEquals(1, cache.getSize());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedRemoved() {
+    final DictionaryLookupCache cache = new DictionaryLookupCache(160);
+    final List<DictionaryLookupCache.Reading> readings = Collections.emptyList();
+    cache.put("word0", readings);
+    for (int i = 1; i < 1000; i++) {
+      // keep using the first word, so it stays in the cache:
+      assertNotNull(cache.get("word0"));
+      cache.put("word" + i, readings);
+    }
+    assertEquals(160, cache.getSize(), 16);
+    assertNotNull(cache.get("word0"));
+    assertNotNull(cache.get("word999"));
+    assertNull(cache.get("word1"));
+  }
+
+  @Test
+  public void testSharedByKey() {
+    assertSame(DictionaryLookupCache.getInstance("test:/xx/a.dict"), DictionaryLookupCache.getInstance("test:/xx/a.dict"));
+  }
+
+}
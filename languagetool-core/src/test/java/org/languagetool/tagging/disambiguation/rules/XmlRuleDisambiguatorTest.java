@@ -0,0 +1,99 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging.disambiguation.rules;
+
+import org.junit.Test;
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.AnalyzedToken;
+import org.languagetool.JLanguageTool;
+import org.languagetool.language.Demo;
+import org.languagetool.rules.patterns.Element;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class XmlRuleDisambiguatorTest {
+
+  @Test
+  public void testRulesThatCannotMatchAreSkipped() throws IOException {
+    final DisambiguationPatternRule fooRule = makeAddRule("FOO", new Element("foo", false, false, false), "FOO_TAG", "foo");
+    final DisambiguationPatternRule lemmaRule = makeAddRule("LEMMA", new Element("foo", false, false, true), "LEMMA_TAG", "lemma");
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    final AnalyzedSentence sentence = langTool.getRawAnalyzedSentence("This is foo.");
+    assertFalse(fooRule.canBeIgnoredFor(sentence));
+    assertTrue(lemmaRule.canBeIgnoredFor(langTool.getRawAnalyzedSentence("This is bar.")));
+  }
+
+  @Test
+  public void testRuleOrderIsRespected() throws IOException {
+    // the second rule can only match because the first rule adds the lemma it needs:
+    final DisambiguationPatternRule addLemmaRule = makeAddRule("ADD", new Element("bar", false, false, false), "NEW_TAG", "foo");
+    final DisambiguationPatternRule lemmaRule = makeAddRule("LEMMA", new Element("foo", false, false, true), "LEMMA_TAG", "lemma");
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    final AnalyzedSentence sentence = langTool.getRawAnalyzedSentence("This is bar.");
+    assertTrue(lemmaRule.canBeIgnoredFor(sentence));
+
+    final AnalyzedSentence disambiguated = new TestDisambiguator(addLemmaRule, lemmaRule).disambiguate(sentence);
+    assertTrue(disambiguated.toString().contains("foo/NEW_TAG"));
+    assertTrue(disambiguated.toString().contains("lemma/LEMMA_TAG"));
+
+    final AnalyzedSentence sentence2 = langTool.getRawAnalyzedSentence("This is bar.");
+    final AnalyzedSentence disambiguated2 = new TestDisambiguator(lemmaRule, addLemmaRule).disambiguate(sentence2);
+    assertTrue(disambiguated2.toString().contains("foo/NEW_TAG"));
+    assertFalse(disambiguated2.toString().contains("LEMMA_TAG"));
+  }
+
+  @Test
+  public void testSameResultAsWithoutFilter() throws IOException {
+    final DisambiguationPatternRule fooRule = makeAddRule("FOO", new Element("foo", false, false, false), "FOO_TAG", "foo");
+    final DisambiguationPatternRule barRule = makeAddRule("BAR", new Element("bar", false, false, false), "BAR_TAG", "bar");
+    final JLanguageTool langTool = new JLanguageTool(new Demo());
+    AnalyzedSentence expected = langTool.getRawAnalyzedSentence("Foo and bar.");
+    for (DisambiguationPatternRule rule : Arrays.asList(fooRule, barRule)) {
+      expected = rule.replace(expected);
+    }
+    final AnalyzedSentence sentence = langTool.getRawAnalyzedSentence("Foo and bar.");
+    assertEquals(expected.toString(), new TestDisambiguator(fooRule, barRule).disambiguate(sentence).toString());
+  }
+
+  private DisambiguationPatternRule makeAddRule(String id, Element element, String posTag, String lemma) {
+    final DisambiguationPatternRule rule = new DisambiguationPatternRule(id, "description", new Demo(),
+            Arrays.asList(element), null, null, DisambiguationPatternRule.DisambiguatorAction.ADD);
+    rule.setNewInterpretations(new AnalyzedToken[] {new AnalyzedToken("", posTag, lemma)});
+    return rule;
+  }
+
+  static class TestDisambiguator extends XmlRuleDisambiguator {
+    private final List<DisambiguationPatternRule> rules;
+    TestDisambiguator(DisambiguationPatternRule... rules) {
+      super(new Demo());
+      this.rules = Arrays.asList(rules);
+    }
+    @Override
+    protected List<DisambiguationPatternRule> loadPatternRules(String filename) {
+      return rules;
+    }
+  }
+
+}
@@ -30,6 +30,7 @@ import org.languagetool.rules.patterns.Element;
 import org.languagetool.rules.patterns.PatternRule;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
@@ -38,6 +39,7 @@ import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
 
 public class RuleAsXmlSerializerTest {
@@ -146,6 +148,21 @@ public class RuleAsXmlSerializerTest {
             "</matches>\n"));
   }
 
+  @Test
+  public void testRuleMatchesToWriter() throws IOException {
+    final List<RuleMatch> matches = new ArrayList<>();
+    final String text = "This is an test sentence. Here's another sentence with more text.";
+    for (int i = 0; i < 3; i++) {
+      final RuleMatch match = new RuleMatch(new FakeRule(), 8 + i, 10 + i, "myMessage " + i);
+      match.setColumn(99);
+      match.setEndColumn(100);
+      matches.add(match);
+    }
+    final StringWriter writer = new StringWriter();
+    SERIALIZER.ruleMatchesToXml(matches, text, 5, Language.DEMO, new FakeLanguage(), writer);
+    assertEquals(SERIALIZER.ruleMatchesToXml(matches, text, 5, Language.DEMO, new FakeLanguage()), writer.toString());
+  }
+
   private class FakeRule extends PatternRule {
     public FakeRule() {
       super("FAKE_ID", Language.DEMO, Collections.singletonList(new Element("foo", true, false, false)),
@@ -24,9 +24,6 @@ import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import morfologik.stemming.IStemmer;
-import morfologik.stemming.WordData;
-
 import org.languagetool.AnalyzedToken;
 import org.languagetool.synthesis.BaseSynthesizer;
 
@@ -89,13 +86,11 @@ public class CatalanSynthesizer extends BaseSynthesizer {
       p = Pattern.compile(posTag);
     }
     final List<String> results = new ArrayList<>();
-    final IStemmer synthesizer = createStemmer();
-    
     for (final String tag : possibleTags) {
       final Matcher m = p.matcher(tag);
       if (m.matches()) {
         if (addDt) {
-          lookupWithEl(token.getLemma(), tag, prep, results, synthesizer);
+          lookupWithEl(token.getLemma(), tag, prep, results);
         } else {
           lookup(token.getLemma(), tag, results);
         }
@@ -123,16 +118,14 @@ public class CatalanSynthesizer extends BaseSynthesizer {
    * @param lemma the lemma to be inflected.
    * @param posTag the desired part-of-speech tag.
    * @param results the list to collect the inflected forms.
-   * @param synthesizer the stemmer to use.
    */
-  private void lookupWithEl(String lemma, String posTag, String prep, List<String> results, IStemmer synthesizer) {
-    final List<WordData> wordForms = synthesizer.lookup(lemma + "|" + posTag);
+  private void lookupWithEl(String lemma, String posTag, String prep, List<String> results) {
+    final List<String> wordForms = getDictionaryForms(lemma, posTag);
     final Matcher mMS = pMS.matcher(posTag);
     final Matcher mFS = pFS.matcher(posTag);
     final Matcher mMP = pMP.matcher(posTag);
     final Matcher mFP = pFP.matcher(posTag);
-    for (WordData wd : wordForms) {
-      final String word = wd.getStem().toString();
+    for (String word : wordForms) {
       if (mMS.matches()) {
         final Matcher mMascYes = pMascYes.matcher(word);
         final Matcher mMascNo = pMascNo.matcher(word);
@@ -19,7 +19,6 @@
 package org.languagetool.tagging.de;
 
 import java.io.IOException;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -34,6 +33,7 @@ import org.languagetool.JLanguageTool;
 import org.languagetool.tagging.ManualTagger;
 import org.languagetool.tagging.Tagger;
 import org.languagetool.tokenizers.de.GermanCompoundTokenizer;
+import org.languagetool.tools.SharedDictionaries;
 import org.languagetool.tools.StringTools;
 
 /**
@@ -56,8 +56,7 @@ public class GermanTagger implements Tagger {
   }
 
   protected void initialize() throws IOException {
-    final URL url = JLanguageTool.getDataBroker().getFromResourceDirAsUrl(DICT_FILENAME);
-    dictionary = Dictionary.read(url);
+    dictionary = SharedDictionaries.getFromResourceDir(DICT_FILENAME);
     manualTagger = new ManualTagger(JLanguageTool.getDataBroker().getFromResourceDirAsStream(USER_DICT_FILENAME));
     compoundTokenizer = new GermanCompoundTokenizer();
   }
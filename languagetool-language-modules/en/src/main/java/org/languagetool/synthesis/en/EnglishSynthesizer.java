@@ -24,9 +24,6 @@ import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import morfologik.stemming.IStemmer;
-import morfologik.stemming.WordData;
-
 import org.languagetool.AnalyzedToken;
 import org.languagetool.rules.en.AvsAnRule;
 import org.languagetool.synthesis.BaseSynthesizer;
@@ -80,12 +77,7 @@ public class EnglishSynthesizer extends BaseSynthesizer {
       return new String[] { rule.suggestAorAn(token.getToken()) };
     }
 
-    final IStemmer synthesizer = createStemmer();
-    final List<WordData> wordData = synthesizer.lookup(token.getLemma() + "|" + posTag);
-    final List<String> wordForms = new ArrayList<>();
-    for (WordData wd : wordData) {
-      wordForms.add(wd.getStem().toString());
-    }
+    final List<String> wordForms = getDictionaryForms(token.getLemma(), posTag);
     return wordForms.toArray(new String[wordForms.size()]);
   }
 
@@ -129,9 +121,8 @@ public class EnglishSynthesizer extends BaseSynthesizer {
   }
 
   private void lookup(String lemma, String posTag, List<String> results, String determiner) {
-    final List<WordData> wordForms = getStemmer().lookup(lemma + "|" + posTag);
-    for (WordData wd : wordForms) {
-      results.add(determiner + wd.getStem().toString());
+    for (String form : getDictionaryForms(lemma, posTag)) {
+      results.add(determiner + form);
     }
   }
 
@@ -207,4 +207,26 @@ public class JLanguageToolTest extends TestCase {
     assertEquals("one overlapping rule must be filtered out", 1, ruleMatches2.size());
     assertEquals("msg1", ruleMatches2.get(0).getMessage());
   }
+
+  public void testSharedPatternRules() throws IOException {
+    final JLanguageTool tool1 = new JLanguageTool(new AmericanEnglish());
+    tool1.activateDefaultPatternRules();
+    final JLanguageTool tool2 = new JLanguageTool(new AmericanEnglish());
+    tool2.activateDefaultPatternRules();
+    tool2.disableRule("EN_A_VS_AN");
+    final List<Rule> rules1 = tool1.getAllRules();
+    final List<Rule> rules2 = tool2.getAllRules();
+    assertEquals(rules1.size(), rules2.size());
+    final Rule lastRule1 = rules1.get(rules1.size() - 1);
+    assertTrue(lastRule1 instanceof PatternRule);
+    assertSame("pattern rules are loaded only once", lastRule1, rules2.get(rules2.size() - 1));
+    // disabling a rule in one instance has no effect on the other:
+    assertEquals(1, tool1.check("This is an test.").size());
+    assertEquals(0, tool2.check("This is an test.").size());
+    // variants have their own default rule settings:
+    final JLanguageTool britishTool = new JLanguageTool(new BritishEnglish());
+    britishTool.activateDefaultPatternRules();
+    final List<Rule> britishRules = britishTool.getAllRules();
+    assertNotSame(lastRule1, britishRules.get(britishRules.size() - 1));
+  }
 }
@@ -23,10 +23,14 @@ import org.languagetool.JLanguageTool;
 import org.languagetool.TestTools;
 import org.languagetool.language.AmericanEnglish;
 import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.spelling.morfologik.MorfologikSpeller;
 
 import java.io.IOException;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class MorfologikAmericanSpellerRuleTest {
 
@@ -69,4 +73,22 @@ public class MorfologikAmericanSpellerRuleTest {
     assertEquals("taught", matches[0].getSuggestedReplacements().get(0));
   }
 
+  @Test
+  public void testCachedSuggestions() throws IOException {
+    final String fileName = "/en/hunspell/en_US.dict";
+    final MorfologikSpeller speller = new MorfologikSpeller(fileName);
+    assertTrue(speller.isMisspelled("behaviour"));
+    assertFalse(speller.isMisspelled("behavior"));
+    final List<String> suggestions = speller.getSuggestions("behaviour");
+    assertEquals("behavior", suggestions.get(0));
+    // the returned list can be modified without affecting the cache:
+    suggestions.clear();
+    assertEquals("behavior", speller.getSuggestions("behaviour").get(0));
+    // another speller for the same dictionary shares the cache:
+    final MorfologikSpeller speller2 = new MorfologikSpeller(fileName);
+    final long hits = speller2.getCache().getHitCount();
+    assertTrue(speller2.isMisspelled("behaviour"));
+    assertEquals(hits + 1, speller2.getCache().getHitCount());
+  }
+
 }
@@ -20,7 +20,13 @@
 package org.languagetool.synthesis.en;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import junit.framework.TestCase;
 
@@ -58,4 +64,27 @@ public class EnglishSynthesizerTest extends TestCase {
     assertEquals("[the hour]", Arrays.toString(synth.synthesize(dummyToken("hours", "hour"), "NN\\+DT", true)));
   }
 
+  public void testSynthesizeInParallel() throws Exception {
+    final EnglishSynthesizer synth = new EnglishSynthesizer();
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        results.add(executor.submit(new Callable<String>() {
+          @Override
+          public String call() throws IOException {
+            return Arrays.toString(synth.synthesize(dummyToken("be"), "VBD"))
+                + Arrays.toString(synth.synthesize(dummyToken("test"), "VBD|VBG", true));
+          }
+        }));
+      }
+      for (Future<String> result : results) {
+        assertEquals("[was, were][tested, testing]", result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertTrue(synth.getFormsCache().getHitCount() > 0);
+  }
+
 }
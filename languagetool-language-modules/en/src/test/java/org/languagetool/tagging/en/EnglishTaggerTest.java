@@ -22,6 +22,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import morfologik.stemming.Dictionary;
+
 import junit.framework.TestCase;
 
 import org.languagetool.AnalyzedTokenReadings;
@@ -47,6 +49,12 @@ public class EnglishTaggerTest extends TestCase {
     TestTools.testDictionary(tagger, new English());
   }
 
+  public void testDictionaryShared() throws IOException {
+    final DictionaryExposingTagger tagger1 = new DictionaryExposingTagger();
+    final DictionaryExposingTagger tagger2 = new DictionaryExposingTagger();
+    assertSame(tagger1.getDictionary(), tagger2.getDictionary());
+  }
+
   public void testTagger() throws IOException {
     TestTools.myAssert("This is a big house.",
         "This/[this]DT|This/[this]PDT -- is/[be]VBZ -- a/[a]DT -- big/[big]JJ|big/[big]RB -- house/[house]NN|house/[house]VB|house/[house]VBP", tokenizer, tagger);
@@ -82,4 +90,11 @@ public class EnglishTaggerTest extends TestCase {
     assertEquals("work", aToken.get(1).getReadings().get(1).getLemma());
   }
 
+  private static class DictionaryExposingTagger extends EnglishTagger {
+    @Override
+    protected Dictionary getDictionary() throws IOException {
+      return super.getDictionary();
+    }
+  }
+
 }
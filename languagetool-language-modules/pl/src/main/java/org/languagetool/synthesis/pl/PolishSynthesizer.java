@@ -19,7 +19,6 @@
 package org.languagetool.synthesis.pl;
 
 import java.io.IOException;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -35,6 +34,7 @@ import org.languagetool.AnalyzedToken;
 import org.languagetool.JLanguageTool;
 import org.languagetool.synthesis.Synthesizer;
 import org.languagetool.synthesis.SynthesizerTools;
+import org.languagetool.tools.SharedDictionaries;
 
 /**
  * Polish word form synthesizer. Based on project Morfologik.
@@ -61,8 +61,7 @@ public class PolishSynthesizer implements Synthesizer {
       synchronized (this) {
         result = this.dictionary;
         if (result == null) {
-          final URL url = JLanguageTool.getDataBroker().getFromResourceDirAsUrl(RESOURCE_FILENAME);
-          this.dictionary = result = Dictionary.read(url);
+          this.dictionary = result = SharedDictionaries.getFromResourceDir(RESOURCE_FILENAME);
         }
       }
     }
@@ -0,0 +1,52 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.languagetool.rules.RuleMatch;
+
+import java.util.List;
+
+/**
+ * The matches found in a text, and whether rules have been skipped because of the time budget.
+ * @since 2.6
+ */
+class CheckResult {
+
+  private final List<RuleMatch> matches;
+  private final boolean partial;
+
+  CheckResult(List<RuleMatch> matches, boolean partial) {
+    this.matches = matches;
+    this.partial = partial;
+  }
+
+  List<RuleMatch> getMatches() {
+    return matches;
+  }
+
+  /**
+   * Whether some rules have not been checked because the check took too long,
+   * so that the text may contain more errors than those found.
+   * @see org.languagetool.JLanguageTool#isPartialResult()
+   */
+  boolean isPartial() {
+    return partial;
+  }
+
+}
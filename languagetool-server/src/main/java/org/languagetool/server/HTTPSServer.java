@@ -36,7 +36,7 @@ import java.security.KeyStore;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.languagetool.server.HTTPServerConfig.DEFAULT_HOST;
 
@@ -70,11 +70,20 @@ public class HTTPSServer extends Server {
       final HttpsConfigurator configurator = getConfigurator(sslContext);
       ((HttpsServer)server).setHttpsConfigurator(configurator);
       final RequestLimiter limiter = getRequestLimiterOrNull(config);
-      final LanguageToolHttpHandler httpHandler = new LanguageToolHttpHandler(config.isVerbose(), allowedIps, runInternally, limiter);
+      languageToolPool = new LanguageToolPool(config.getPoolSize(), config.getPoolMaxTotal(), config.getPoolIdleTimeInSeconds());
+      warmUpLanguages = config.getWarmUpLanguages();
+      final LanguageToolHttpHandler httpHandler = new LanguageToolHttpHandler(config.isVerbose(), allowedIps, runInternally, limiter, languageToolPool);
       httpHandler.setMaxTextLength(config.getMaxTextLength());
       httpHandler.setAllowOriginUrl(config.getAllowOriginUrl());
       server.createContext("/", httpHandler);
-      executorService = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+      final RequestScheduler scheduler = new RequestScheduler(config);
+      httpHandler.setRequestScheduler(scheduler);
+      httpHandler.setResultCache(createResultCacheOrNull(config));
+      httpHandler.setMaxCheckTimeMillis(config.getMaxCheckTimeMillis());
+      httpHandler.setCheckTimeoutMillis(TimeUnit.SECONDS.toMillis(config.getCheckTimeoutInSeconds()));
+      setUpBatchChecks(httpHandler, config);
+      setUpMetrics(httpHandler);
+      executorService = createExecutorService(scheduler);
       server.setExecutor(executorService);
     } catch (BindException e) {
       final ResourceBundle messages = JLanguageTool.getMessageBundle();
@@ -133,7 +142,7 @@ public class HTTPSServer extends Server {
   }
 
   public static void main(String[] args) {
-    if (args.length > 7 || usageRequested(args)) {
+    if (args.length > 34 || usageRequested(args)) {
       System.out.println("Usage: " + HTTPSServer.class.getSimpleName()
               + " --config propertyFile [--port|-p port] [--public]");
       System.out.println("  --config file  a Java property file with values for:");
@@ -26,7 +26,7 @@ import java.net.InetSocketAddress;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.languagetool.server.HTTPServerConfig.DEFAULT_HOST;
 
@@ -98,10 +98,19 @@ public class HTTPServer extends Server {
       } else {
         server = HttpServer.create(new InetSocketAddress(host, port), 0);
       }
-      final LanguageToolHttpHandler httpHandler = new LanguageToolHttpHandler(config.isVerbose(), allowedIps, runInternally, null);
+      languageToolPool = new LanguageToolPool(config.getPoolSize(), config.getPoolMaxTotal(), config.getPoolIdleTimeInSeconds());
+      warmUpLanguages = config.getWarmUpLanguages();
+      final LanguageToolHttpHandler httpHandler = new LanguageToolHttpHandler(config.isVerbose(), allowedIps, runInternally, null, languageToolPool);
       httpHandler.setAllowOriginUrl(config.getAllowOriginUrl());
       server.createContext("/", httpHandler);
-      executorService = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+      final RequestScheduler scheduler = new RequestScheduler(config);
+      httpHandler.setRequestScheduler(scheduler);
+      httpHandler.setResultCache(createResultCacheOrNull(config));
+      httpHandler.setMaxCheckTimeMillis(config.getMaxCheckTimeMillis());
+      httpHandler.setCheckTimeoutMillis(TimeUnit.SECONDS.toMillis(config.getCheckTimeoutInSeconds()));
+      setUpBatchChecks(httpHandler, config);
+      setUpMetrics(httpHandler);
+      executorService = createExecutorService(scheduler);
       server.setExecutor(executorService);
     } catch (Exception e) {
       final ResourceBundle messages = JLanguageTool.getMessageBundle();
@@ -119,7 +128,7 @@ public class HTTPServer extends Server {
   }
 
   public static void main(String[] args) {
-    if (args.length > 3 || usageRequested(args)) {
+    if (args.length > 32 || usageRequested(args)) {
       System.out.println("Usage: " + HTTPServer.class.getSimpleName() + " [--port|-p port] [--public]");
       printCommonOptions();
       System.exit(1);
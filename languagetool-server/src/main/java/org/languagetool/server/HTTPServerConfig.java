@@ -18,6 +18,12 @@
  */
 package org.languagetool.server;
 
+import org.languagetool.Language;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * @since 2.0
  */
@@ -28,10 +34,54 @@ public class HTTPServerConfig {
   /** The default port on which the server is running (8081). */
   public static final int DEFAULT_PORT = 8081;
 
+  /** The default maximum number of idle JLanguageTool instances kept per language and rule configuration. */
+  public static final int DEFAULT_POOL_SIZE = 10;
+
+  /** The default maximum number of idle JLanguageTool instances kept for all languages and rule configurations together. */
+  public static final int DEFAULT_POOL_MAX_TOTAL = 50;
+
+  /** The default time after which idle JLanguageTool instances are removed from the pool, in seconds. */
+  public static final int DEFAULT_POOL_IDLE_TIME = 600;
+
+  /** The default number of texts that are checked at the same time. */
+  public static final int DEFAULT_THREADS = 10;
+
+  /** The default maximum number of requests waiting to be checked, per lane. */
+  public static final int DEFAULT_MAX_QUEUE_SIZE = 100;
+
+  /** The default maximum time a request waits to be checked before it's rejected, in seconds. */
+  public static final int DEFAULT_MAX_QUEUE_WAIT_TIME = 30;
+
+  /** The default number of short texts that are checked at the same time, in addition to the other texts. */
+  public static final int DEFAULT_SHORT_TEXT_THREADS = 2;
+
+  /** The default maximum length of texts checked in the lane for short texts, in characters. */
+  public static final int DEFAULT_SHORT_TEXT_LENGTH = 1000;
+
+  /** The default number of threads that check the texts of batch requests. */
+  public static final int DEFAULT_BATCH_THREADS = 4;
+
+  /** The default time after which cached check results are removed, in seconds. */
+  public static final int DEFAULT_CACHE_TTL = 300;
+
   protected boolean verbose = false;
   protected boolean publicAccess = false;
   protected int port = DEFAULT_PORT;
   protected String allowOriginUrl = null;
+  protected int poolSize = DEFAULT_POOL_SIZE;
+  protected int poolMaxTotal = DEFAULT_POOL_MAX_TOTAL;
+  protected int poolIdleTimeInSeconds = DEFAULT_POOL_IDLE_TIME;
+  protected List<Language> warmUpLanguages = new ArrayList<>();
+  protected int threads = DEFAULT_THREADS;
+  protected int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+  protected int maxQueueWaitTimeInSeconds = DEFAULT_MAX_QUEUE_WAIT_TIME;
+  protected int shortTextThreads = DEFAULT_SHORT_TEXT_THREADS;
+  protected int shortTextLength = DEFAULT_SHORT_TEXT_LENGTH;
+  protected int batchThreads = DEFAULT_BATCH_THREADS;
+  protected int cacheSize = 0;
+  protected int cacheTtlInSeconds = DEFAULT_CACHE_TTL;
+  protected int maxCheckTimeMillis = 0;
+  protected int checkTimeoutInSeconds = 0;
 
   public HTTPServerConfig() {
     this.port = DEFAULT_PORT;
@@ -69,6 +119,50 @@ public class HTTPServerConfig {
         case "--allow-origin":
           allowOriginUrl = args[++i];
           break;
+        case "--pool-size":
+          poolSize = Integer.parseInt(args[++i]);
+          break;
+        case "--pool-max-total":
+          poolMaxTotal = Integer.parseInt(args[++i]);
+          break;
+        case "--pool-idle-time":
+          poolIdleTimeInSeconds = Integer.parseInt(args[++i]);
+          break;
+        case "--warm-up":
+          for (String langCode : args[++i].split(",")) {
+            warmUpLanguages.add(Language.getLanguageForShortName(langCode.trim()));
+          }
+          break;
+        case "--threads":
+          threads = Integer.parseInt(args[++i]);
+          break;
+        case "--queue-size":
+          maxQueueSize = Integer.parseInt(args[++i]);
+          break;
+        case "--queue-wait-time":
+          maxQueueWaitTimeInSeconds = Integer.parseInt(args[++i]);
+          break;
+        case "--short-text-threads":
+          shortTextThreads = Integer.parseInt(args[++i]);
+          break;
+        case "--short-text-length":
+          shortTextLength = Integer.parseInt(args[++i]);
+          break;
+        case "--batch-threads":
+          batchThreads = Integer.parseInt(args[++i]);
+          break;
+        case "--cache-size":
+          cacheSize = Integer.parseInt(args[++i]);
+          break;
+        case "--cache-ttl":
+          cacheTtlInSeconds = Integer.parseInt(args[++i]);
+          break;
+        case "--max-check-time":
+          maxCheckTimeMillis = Integer.parseInt(args[++i]);
+          break;
+        case "--check-timeout":
+          checkTimeoutInSeconds = Integer.parseInt(args[++i]);
+          break;
       }
     }
   }
@@ -95,4 +189,229 @@ public class HTTPServerConfig {
     return allowOriginUrl;
   }
 
+  /**
+   * Maximum number of idle {@link org.languagetool.JLanguageTool} instances that are kept
+   * for each combination of language, mother tongue and rule configuration. {@code 0} disables pooling.
+   * @since 2.6
+   */
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  /**
+   * @param poolSize maximum number of idle {@link org.languagetool.JLanguageTool} instances kept
+   *                 per configuration, {@code 0} disables pooling
+   * @since 2.6
+   */
+  public void setPoolSize(int poolSize) {
+    this.poolSize = poolSize;
+  }
+
+  /**
+   * Maximum number of idle {@link org.languagetool.JLanguageTool} instances that are kept for all
+   * languages and rule configurations together. If there are more, the least recently used ones
+   * are removed. {@code 0} disables pooling.
+   * @since 2.6
+   */
+  public int getPoolMaxTotal() {
+    return poolMaxTotal;
+  }
+
+  /**
+   * @since 2.6
+   */
+  public void setPoolMaxTotal(int poolMaxTotal) {
+    this.poolMaxTotal = poolMaxTotal;
+  }
+
+  /**
+   * Time in seconds after which idle {@link org.languagetool.JLanguageTool} instances are removed from the pool.
+   * @since 2.6
+   */
+  public int getPoolIdleTimeInSeconds() {
+    return poolIdleTimeInSeconds;
+  }
+
+  /**
+   * @since 2.6
+   */
+  public void setPoolIdleTimeInSeconds(int poolIdleTimeInSeconds) {
+    this.poolIdleTimeInSeconds = poolIdleTimeInSeconds;
+  }
+
+  /**
+   * Languages for which a {@link org.languagetool.JLanguageTool} instance is created when the server starts.
+   * @since 2.6
+   */
+  public List<Language> getWarmUpLanguages() {
+    return Collections.unmodifiableList(warmUpLanguages);
+  }
+
+  /**
+   * @since 2.6
+   */
+  public void setWarmUpLanguages(List<Language> warmUpLanguages) {
+    this.warmUpLanguages = new ArrayList<>(warmUpLanguages);
+  }
+
+  /**
+   * Number of texts that are checked at the same time (not counting short texts, see {@link #getShortTextThreads()}).
+   * @since 2.6
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * @since 2.6
+   */
+  public void setThreads(int threads) {
+    this.threads = threads;
+  }
+
+  /**
+   * Maximum number of requests per lane that wait to be checked. If more requests arrive,
+   * they are rejected with HTTP status 503 (Service Unavailable).
+   * @since 2.6
+   */
+  public int getMaxQueueSize() {
+    return maxQueueSize;
+  }
+
+  /**
+   * @since 2.6
+   */
+  public void setMaxQueueSize(int maxQueueSize) {
+    this.maxQueueSize = maxQueueSize;
+  }
+
+  /**
+   * Maximum time in seconds a request waits to be checked. If this time is over, the request
+   * is rejected with HTTP status 503 (Service Unavailable).
+   * @since 2.6
+   */
+  public int getMaxQueueWaitTimeInSeconds() {
+    return maxQueueWaitTimeInSeconds;
+  }
+
+  /**
+   * @since 2.6
+   */
+  public void setMaxQueueWaitTimeInSeconds(int maxQueueWaitTimeInSeconds) {
+    this.maxQueueWaitTimeInSeconds = maxQueueWaitTimeInSeconds;
+  }
+
+  /**
+   * Number of short texts that are checked at the same time in their own lane, so they
+   * don't wait for long texts. {@code 0} means short texts are checked like all other texts.
+   * @see #getShortTextLength()
+   * @since 2.6
+   */
+  public int getShortTextThreads() {
+    return shortTextThreads;
+  }
+
+  /**
+   * @since 2.6
+   */
+  public void setShortTextThreads(int shortTextThreads) {
+    this.shortTextThreads = shortTextThreads;
+  }
+
+  /**
+   * Maximum length in characters of texts that are checked in the lane for short texts.
+   * @since 2.6
+   */
+  public int getShortTextLength() {
+    return shortTextLength;
+  }
+
+  /**
+   * @since 2.6
+   */
+  public void setShortTextLength(int shortTextLength) {
+    this.shortTextLength = shortTextLength;
+  }
+
+  /**
+   * Number of threads that check the texts of batch requests (requests to {@code /batch})
+   * at the same time. A batch request counts as this many requests for {@link #getThreads()}
+   * (at most as many as it has texts), as that's how many texts it has checked at the same time.
+   * @since 2.6
+   */
+  public int getBatchThreads() {
+    return batchThreads;
+  }
+
+  /**
+   * @since 2.6
+   */
+  public void setBatchThreads(int batchThreads) {
+    this.batchThreads = batchThreads;
+  }
+
+  /**
+   * Maximum number of paragraphs whose check results are cached, so they don't need to be
+   * checked again when a client sends them again. {@code 0} disables the cache.
+   * @since 2.6
+   */
+  public int getCacheSize() {
+    return cacheSize;
+  }
+
+  /**
+   * @since 2.6
+   */
+  public void setCacheSize(int cacheSize) {
+    this.cacheSize = cacheSize;
+  }
+
+  /**
+   * Time in seconds after which cached check results are removed.
+   * @since 2.6
+   */
+  public int getCacheTtlInSeconds() {
+    return cacheTtlInSeconds;
+  }
+
+  /**
+   * @since 2.6
+   */
+  public void setCacheTtlInSeconds(int cacheTtlInSeconds) {
+    this.cacheTtlInSeconds = cacheTtlInSeconds;
+  }
+
+  /**
+   * Time budget for checking a text in milliseconds, {@code 0} for no limit. Rules that
+   * would exceed it are skipped and the result is marked as partial.
+   * @see org.languagetool.JLanguageTool#setTimeBudgetMillis(long)
+   * @since 2.6
+   */
+  public int getMaxCheckTimeMillis() {
+    return maxCheckTimeMillis;
+  }
+
+  /**
+   * @since 2.6
+   */
+  public void setMaxCheckTimeMillis(int maxCheckTimeMillis) {
+    this.maxCheckTimeMillis = maxCheckTimeMillis;
+  }
+
+  /**
+   * Time in seconds after which the checks of a request are stopped and the request fails,
+   * {@code 0} for no limit. Unlike {@link #getMaxCheckTimeMillis()}, no result is returned then.
+   * @since 2.6
+   */
+  public int getCheckTimeoutInSeconds() {
+    return checkTimeoutInSeconds;
+  }
+
+  /**
+   * @since 2.6
+   */
+  public void setCheckTimeoutInSeconds(int checkTimeoutInSeconds) {
+    this.checkTimeoutInSeconds = checkTimeoutInSeconds;
+  }
+
 }
@@ -24,13 +24,21 @@ import java.net.URI;
 import java.net.URLDecoder;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import org.apache.tika.language.LanguageIdentifier;
+import org.languagetool.CancellationToken;
+import org.languagetool.CheckCancelledException;
 import org.languagetool.JLanguageTool;
 import org.languagetool.Language;
 import org.languagetool.gui.Configuration;
 import org.languagetool.rules.RuleMatch;
 import org.languagetool.rules.bitext.BitextRule;
+import org.languagetool.tools.RuleAsXmlSerializer;
 import org.languagetool.tools.StringTools;
 import org.languagetool.tools.Tools;
 
@@ -40,6 +48,9 @@ import com.sun.net.httpserver.HttpHandler;
 class LanguageToolHttpHandler implements HttpHandler {
 
   private static final String CONTENT_TYPE_VALUE = "text/xml; charset=UTF-8";
+  private static final String METRICS_CONTENT_TYPE_VALUE = "text/plain; version=0.0.4; charset=UTF-8";
+  // set if rules have been skipped because of the time budget, so more errors may exist:
+  private static final String PARTIAL_RESULT_HEADER = "X-LanguageTool-Partial-Result";
   private static final String ENCODING = "utf-8";
   private static final int CONTEXT_SIZE = 40; // characters
   private static final int MIN_LENGTH_FOR_AUTO_DETECTION = 60;  // characters
@@ -48,22 +59,31 @@ class LanguageToolHttpHandler implements HttpHandler {
   private final boolean verbose;
   private final boolean internalServer;
   private final RequestLimiter requestLimiter;
+  private final LanguageToolPool languageToolPool;
 
   private int maxTextLength = Integer.MAX_VALUE;
   private String allowOriginUrl;
-  
-  private static int handleCount = 0;
+  private RequestScheduler requestScheduler;
+  private ResultCache resultCache;
+  private ExecutorService batchExecutorService;
+  private int batchThreads = 1;
+  private ServerMetrics metrics = new ServerMetrics();
+  private long maxCheckTimeMillis;
+  private long checkTimeoutMillis;
 
   /**
    * @param verbose print the input text in case of exceptions
    * @param allowedIps set of IPs that may connect or <tt>null</tt> to allow any IP
    * @param requestLimiter may be null
+   * @param languageToolPool the pool that provides the {@link JLanguageTool} instances used for checking
    */
-  LanguageToolHttpHandler(boolean verbose, Set<String> allowedIps, boolean internal, RequestLimiter requestLimiter) {
+  LanguageToolHttpHandler(boolean verbose, Set<String> allowedIps, boolean internal, RequestLimiter requestLimiter,
+                          LanguageToolPool languageToolPool) {
     this.verbose = verbose;
     this.allowedIps = allowedIps;
     this.internalServer = internal;
     this.requestLimiter = requestLimiter;
+    this.languageToolPool = languageToolPool;
   }
 
   void setMaxTextLength(int maxTextLength) {
@@ -79,76 +99,203 @@ class LanguageToolHttpHandler implements HttpHandler {
     this.allowOriginUrl = allowOriginUrl;
   }
 
+  /**
+   * @param requestScheduler limits the number of texts checked at the same time, may be null
+   */
+  void setRequestScheduler(RequestScheduler requestScheduler) {
+    this.requestScheduler = requestScheduler;
+  }
+
+  /**
+   * @param resultCache caches the matches of paragraphs checked before, may be null
+   */
+  void setResultCache(ResultCache resultCache) {
+    this.resultCache = resultCache;
+  }
+
+  /**
+   * @param batchExecutorService the executor used to check the texts of batch requests
+   *                             concurrently, may be null to check them one after another
+   * @param batchThreads the number of threads of {@code batchExecutorService}
+   */
+  void setBatchExecutorService(ExecutorService batchExecutorService, int batchThreads) {
+    this.batchExecutorService = batchExecutorService;
+    this.batchThreads = batchThreads;
+  }
+
+  /**
+   * @param maxCheckTimeMillis the time budget for checking a text, see {@link JLanguageTool#setTimeBudgetMillis(long)},
+   *                           or {@code 0} for no limit
+   */
+  void setMaxCheckTimeMillis(long maxCheckTimeMillis) {
+    this.maxCheckTimeMillis = maxCheckTimeMillis;
+  }
+
+  /**
+   * @param checkTimeoutMillis checks of a request that take longer than this are stopped and the
+   *                           request fails, {@code 0} for no limit
+   */
+  void setCheckTimeoutMillis(long checkTimeoutMillis) {
+    this.checkTimeoutMillis = checkTimeoutMillis;
+  }
+
+  /**
+   * @param metrics collects the statistics served at {@code /metrics}
+   */
+  void setServerMetrics(ServerMetrics metrics) {
+    this.metrics = metrics;
+  }
+
   @Override
-  public void handle(HttpExchange httpExchange) throws IOException {
-    handleCount++;
+  public void handle(final HttpExchange httpExchange) throws IOException {
+    metrics.requestStarted();
     String text = null;
     try {
+      if (Server.isOverloaded()) {
+        // not even reading the request, this runs in the thread that accepts connections:
+        if (requestScheduler != null) {
+          httpExchange.getResponseHeaders().set("Retry-After", Integer.toString(requestScheduler.getRetryAfterSeconds()));
+        }
+        sendError(httpExchange, HttpURLConnection.HTTP_UNAVAILABLE, "Error: Server busy - too many connections, please try again later");
+        metrics.requestRejected();
+        return;
+      }
       final URI requestedUri = httpExchange.getRequestURI();
       final String remoteAddress = httpExchange.getRemoteAddress().getAddress().getHostAddress();
       // According to the Javadoc, "Closing an exchange without consuming all of the request body is
       // not an error but may make the underlying TCP connection unusable for following exchanges.",
       // so we consume the request now, even before checking for request limits:
-      final Map<String, String> parameters = getRequestQuery(httpExchange, requestedUri);
+      final String query = getRequestQuery(httpExchange, requestedUri);
+      final Map<String, String> parameters = parseQuery(query);
       if (requestLimiter != null && !requestLimiter.isAccessOkay(remoteAddress)) {
         final String errorMessage = "Error: Access from " + StringTools.escapeXML(remoteAddress) +
                 " denied - too many requests. Allowed maximum requests: " + requestLimiter.getRequestLimit() +
                 " requests per " + requestLimiter.getRequestLimitPeriodInSeconds() + " seconds";
         sendError(httpExchange, HttpURLConnection.HTTP_FORBIDDEN, errorMessage);
         print(errorMessage);
+        metrics.requestRejected();
         return;
       }
       if (allowedIps == null || allowedIps.contains(remoteAddress)) {
         if (requestedUri.getRawPath().endsWith("/Languages")) {
           // request type: list known languages
           printListOfLanguages(httpExchange);
+        } else if (requestedUri.getRawPath().endsWith("/metrics")) {
+          // request type: statistics for monitoring
+          printMetrics(httpExchange);
+        } else if (requestedUri.getRawPath().endsWith("/batch")) {
+          // request type: checking many texts at once
+          final List<String> texts = getParameterValues(query, "text");
+          if (texts.isEmpty()) {
+            throw new IllegalArgumentException("Missing 'text' parameter");
+          }
+          int length = 0;
+          for (String batchText : texts) {
+            length += batchText.length();
+          }
+          // the texts are checked by several threads, each of them counts as a check:
+          final int threads = batchExecutorService != null ? Math.min(batchThreads, texts.size()) : 1;
+          scheduleCheck(length, threads, httpExchange, new Check() {
+            @Override
+            public void run() throws Exception {
+              checkBatch(texts, httpExchange, parameters);
+            }
+          });
         } else {
           // request type: text checking
           text = parameters.get("text");
           if (text == null) {
             throw new IllegalArgumentException("Missing 'text' parameter");
           }
-          checkText(text, httpExchange, parameters);
+          final String checkedText = text;
+          scheduleCheck(text.length(), 1, httpExchange, new Check() {
+            @Override
+            public void run() throws Exception {
+              checkText(checkedText, httpExchange, parameters);
+            }
+          });
         }
       } else {
         final String errorMessage = "Error: Access from " + StringTools.escapeXML(remoteAddress) + " denied";
         sendError(httpExchange, HttpURLConnection.HTTP_FORBIDDEN, errorMessage);
         throw new RuntimeException(errorMessage);
       }
+    } catch (CheckCancelledException e) {
+      metrics.requestFailed();
+      print("Check stopped: " + e.getMessage());
+      // the response has been started already if a batch check gets stopped:
+      if (httpExchange.getResponseCode() == -1) {
+        final String hint = checkTimeoutMillis > 0 ? " - checks are stopped after " + checkTimeoutMillis
+                + "ms, please try again with a shorter text" : "";
+        sendError(httpExchange, HttpURLConnection.HTTP_UNAVAILABLE, "Error: " + e.getMessage() + hint);
+      }
     } catch (Exception e) {
+      metrics.requestFailed();
       print("An error has occurred. Stacktrace follows:", System.err);
       if (verbose) {
         print("Exception was caused by this text: " + text, System.err);
       }
       e.printStackTrace();
-      final String response = "Error: " + StringTools.escapeXML(Tools.getFullStackTrace(e));
-      sendError(httpExchange, HttpURLConnection.HTTP_INTERNAL_ERROR, response);
+      // the response has been started already if a batch check fails, the error is part of it then:
+      if (httpExchange.getResponseCode() == -1) {
+        final String response = "Error: " + StringTools.escapeXML(Tools.getFullStackTrace(e));
+        sendError(httpExchange, HttpURLConnection.HTTP_INTERNAL_ERROR, response);
+      }
     } finally {
-      handleCount--;
+      metrics.requestDone();
       httpExchange.close();
     }
   }
 
+  private void scheduleCheck(int textLength, int threads, HttpExchange httpExchange, Check check) throws Exception {
+    if (requestScheduler == null) {
+      check.run();
+      return;
+    }
+    final RequestScheduler.Lane lane = requestScheduler.getLane(textLength);
+    final int permits = lane.getPermits(threads);
+    if (!lane.acquire(permits)) {
+      final String errorMessage = "Error: Server busy - too many " + lane.getName() + " waiting to be checked, please try again later";
+      httpExchange.getResponseHeaders().set("Retry-After", Integer.toString(requestScheduler.getRetryAfterSeconds()));
+      sendError(httpExchange, HttpURLConnection.HTTP_UNAVAILABLE, errorMessage);
+      print(errorMessage + " (" + lane.getQueueSize() + " waiting)");
+      metrics.requestRejected();
+      return;
+    }
+    try {
+      check.run();
+    } finally {
+      lane.release(permits);
+    }
+  }
+
   private void sendError(HttpExchange httpExchange, int returnCode, String response) throws IOException {
-    httpExchange.sendResponseHeaders(returnCode, response.getBytes(ENCODING).length);
-    httpExchange.getResponseBody().write(response.getBytes(ENCODING));
+    final byte[] bytes = response.getBytes(ENCODING);
+    httpExchange.sendResponseHeaders(returnCode, bytes.length);
+    httpExchange.getResponseBody().write(bytes);
   }
 
-  private Map<String, String> getRequestQuery(HttpExchange httpExchange, URI requestedUri) throws IOException {
-    final String query;
+  private String getRequestQuery(HttpExchange httpExchange, URI requestedUri) throws IOException {
     if ("post".equalsIgnoreCase(httpExchange.getRequestMethod())) {
-      query = StringTools.streamToString(httpExchange.getRequestBody(), ENCODING);
+      return StringTools.streamToString(httpExchange.getRequestBody(), ENCODING);
     } else {
-      query = requestedUri.getRawQuery();
+      return requestedUri.getRawQuery();
     }
-    return parseQuery(query);
   }
 
   private void printListOfLanguages(HttpExchange httpExchange) throws IOException {
     setCommonHeaders(httpExchange);
-    final String response = getSupportedLanguagesAsXML();
-    httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, response.getBytes(ENCODING).length);
-    httpExchange.getResponseBody().write(response.getBytes(ENCODING));
+    final byte[] bytes = getSupportedLanguagesAsXML().getBytes(ENCODING);
+    httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, bytes.length);
+    httpExchange.getResponseBody().write(bytes);
+  }
+
+  private void printMetrics(HttpExchange httpExchange) throws IOException {
+    httpExchange.getResponseHeaders().set("Content-Type", METRICS_CONTENT_TYPE_VALUE);
+    httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+    final Writer writer = new BufferedWriter(new OutputStreamWriter(httpExchange.getResponseBody(), ENCODING));
+    metrics.write(writer, requestScheduler, languageToolPool, resultCache);
+    writer.flush();
   }
 
   private void setCommonHeaders(HttpExchange httpExchange) {
@@ -198,64 +345,51 @@ class LanguageToolHttpHandler implements HttpHandler {
       lang = Language.getLanguageForShortName(langParam);
     }
     
-    final String motherTongueParam = parameters.get("motherTongue");
-    Language motherTongue = null;
-    if (motherTongueParam != null) {
-      motherTongue = Language.getLanguageForShortName(motherTongueParam);
-    }
-
-    final String enabledParam = parameters.get("enabled");
-    final List<String> enabledRules = new ArrayList<>();
-    if (enabledParam != null) {
-      enabledRules.addAll(Arrays.asList(enabledParam.split(",")));
-    }
-    
-    boolean useEnabledOnly = false;
-    final String enabledOnlyParam = parameters.get("enabledOnly");
-    if (enabledOnlyParam != null) {
-      useEnabledOnly = enabledOnlyParam.equals("yes");
-    }
-    
-    final String disabledParam = parameters.get("disabled");
-    final List<String> disabledRules = new ArrayList<>();
-    if (disabledParam != null) {
-      disabledRules.addAll(Arrays.asList(disabledParam.split(",")));
-    }
+    final Language motherTongue = getMotherTongue(parameters);
 
-    if (disabledRules.size() > 0 && useEnabledOnly) {
-      throw new IllegalArgumentException("You cannot specify disabled rules using enabledOnly=yes");
-    }
-    
-    final boolean useQuerySettings = enabledRules.size() > 0 || disabledRules.size() > 0;
-    final QueryParams params = new QueryParams(enabledRules, disabledRules, useEnabledOnly, useQuerySettings);
-    
+    final CancellationToken token = createCancellationToken();
     final List<RuleMatch> matches;
+    final boolean partial;
     final String sourceText = parameters.get("srctext");
     if (sourceText == null) {
-      final JLanguageTool lt = getLanguageToolInstance(lang, motherTongue, params);
-      matches = lt.check(text);
+      final LanguageToolPool.Key key = getKey(lang, motherTongue, parameters);
+      final JLanguageTool lt = getLanguageToolInstance(key, token);
+      try {
+        final CheckResult result = check(lt, key, text);
+        matches = result.getMatches();
+        partial = result.isPartial();
+      } finally {
+        returnLanguageToolInstance(key, lt);
+      }
     } else {
-      if (motherTongueParam == null) {
+      if (motherTongue == null) {
         throw new IllegalArgumentException("Missing 'motherTongue' for bilingual checks");
       }
       print("Checking bilingual text, with source length " + sourceText.length() +
           " and target length " + text.length() + " (characters), source language " +
           motherTongue + " and target language " + langParam);
-      final JLanguageTool sourceLt = getLanguageToolInstance(motherTongue, null, params);
-      final JLanguageTool targetLt = getLanguageToolInstance(lang, null, params);
-      final List<BitextRule> bRules = Tools.getBitextRules(motherTongue, lang);
-      matches = Tools.checkBitext(sourceText, text, sourceLt, targetLt, bRules);
+      final LanguageToolPool.Key sourceKey = getKey(motherTongue, null, parameters);
+      final LanguageToolPool.Key targetKey = getKey(lang, null, parameters);
+      final JLanguageTool sourceLt = getLanguageToolInstance(sourceKey, token);
+      final JLanguageTool targetLt = getLanguageToolInstance(targetKey, token);
+      try {
+        final List<BitextRule> bRules = Tools.getBitextRules(motherTongue, lang);
+        matches = Tools.checkBitext(sourceText, text, sourceLt, targetLt, bRules);
+        partial = sourceLt.isPartialResult() || targetLt.isPartialResult();
+      } finally {
+        returnLanguageToolInstance(sourceKey, sourceLt);
+        returnLanguageToolInstance(targetKey, targetLt);
+      }
     }
     setCommonHeaders(httpExchange);
-    final String response = StringTools.ruleMatchesToXML(matches, text,
-            CONTEXT_SIZE, StringTools.XmlPrintMode.NORMAL_XML, lang, motherTongue);
-    
+    if (partial) {
+      httpExchange.getResponseHeaders().set(PARTIAL_RESULT_HEADER, "true");
+    }
     String messageSent = "sent";
     String languageMessage = lang.getShortNameWithCountryAndVariant();
     final String referrer = httpExchange.getRequestHeaders().getFirst("Referer");
     try {
-      httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, response.getBytes(ENCODING).length);
-      httpExchange.getResponseBody().write(response.getBytes(ENCODING));
+      sendMatches(httpExchange, matches, text, lang, motherTongue);
 
       if (motherTongue != null) {
         languageMessage += " (mother tongue: " + motherTongue.getShortNameWithCountryAndVariant() + ")";
@@ -265,11 +399,188 @@ class LanguageToolHttpHandler implements HttpHandler {
       // the client is disconnected
       messageSent = "notSent: " + exception.getMessage();
     }
+    final long checkTime = System.currentTimeMillis() - timeStart;
+    metrics.checkDone(checkTime);
     print("Check done: " + text.length() + " chars, " + languageMessage + ", " + referrer + ", "
-            + "handlers:" + handleCount + ", " + matches.size() + " matches, " + (System.currentTimeMillis() - timeStart) + "ms"
+            + "handlers:" + metrics.getActiveRequestCount() + ", " + matches.size() + " matches, " + checkTime + "ms"
             + ", " + messageSent);
   }
 
+  private void checkBatch(List<String> texts, HttpExchange httpExchange, Map<String, String> parameters) throws Exception {
+    final long timeStart = System.currentTimeMillis();
+    int length = 0;
+    for (String text : texts) {
+      length += text.length();
+    }
+    if (length > maxTextLength) {
+      throw new IllegalArgumentException("Texts are " + length + " characters long, exceeding maximum length of " + maxTextLength);
+    }
+    final String langParam = parameters.get("language");
+    if (langParam == null) {
+      throw new IllegalArgumentException("Missing 'language' parameter, auto-detection is not supported for batch checks");
+    }
+    final Language lang = Language.getLanguageForShortName(langParam);
+    final Language motherTongue = getMotherTongue(parameters);
+    final LanguageToolPool.Key key = getKey(lang, motherTongue, parameters);
+    final CancellationToken token = createCancellationToken();
+
+    setCommonHeaders(httpExchange);
+    httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+    final Writer writer = new BufferedWriter(new OutputStreamWriter(httpExchange.getResponseBody(), ENCODING));
+    final RuleAsXmlSerializer serializer = new RuleAsXmlSerializer();
+    writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    writer.write("<batch software=\"LanguageTool\" version=\"" + JLanguageTool.VERSION + "\" buildDate=\""
+            + JLanguageTool.BUILD_DATE + "\">\n");
+    writer.write("<language shortname=\"" + lang.getShortNameWithCountryAndVariant() + "\" name=\"" + lang.getName() + "\"/>\n");
+    // texts are checked ahead of the one being written, but only a few, so that
+    // the results of a large batch don't need to be kept in memory:
+    final int maxPending = 2 * batchThreads;
+    final Deque<Future<CheckResult>> pending = new ArrayDeque<>();
+    int matchCount = 0;
+    int submitted = 0;
+    int i = 0;
+    try {
+      for (; i < texts.size(); i++) {
+        while (submitted < texts.size() && submitted - i < maxPending) {
+          pending.add(submitBatchCheck(key, texts.get(submitted++), token));
+        }
+        final CheckResult result = getBatchResult(pending.poll());
+        final List<RuleMatch> matches = result.getMatches();
+        matchCount += matches.size();
+        writer.write("<matches index=\"" + i + "\"" + (result.isPartial() ? " partial=\"true\"" : "") + ">\n");
+        writer.write(serializer.ruleMatchesToXmlSnippet(matches, texts.get(i), CONTEXT_SIZE));
+        writer.write("</matches>\n");
+        // writing fails once the client has disconnected, so the remaining texts aren't checked:
+        writer.flush();
+      }
+    } catch (Exception e) {
+      writeBatchError(writer, i, e);
+      throw e;
+    } finally {
+      // only has an effect if an error occurred:
+      token.cancel();
+      for (Future<CheckResult> future : pending) {
+        future.cancel(true);
+      }
+    }
+    writer.write("</batch>\n");
+    writer.flush();
+    final long checkTime = System.currentTimeMillis() - timeStart;
+    metrics.checkDone(checkTime);
+    print("Batch check done: " + texts.size() + " texts, " + length + " chars, " + lang.getShortNameWithCountryAndVariant()
+            + ", handlers:" + metrics.getActiveRequestCount() + ", " + matchCount + " matches, " + checkTime + "ms");
+  }
+
+  /**
+   * The status code has been sent already when a batch check fails, so tell the client
+   * with an {@code <exception>} element instead, and close the batch.
+   */
+  private void writeBatchError(Writer writer, int index, Exception e) {
+    try {
+      writer.write("<exception index=\"" + index + "\" message=\"" + StringTools.escapeXML(e.toString()) + "\"/>\n");
+      writer.write("</batch>\n");
+      writer.flush();
+    } catch (IOException ignored) {
+      // the client is disconnected
+    }
+  }
+
+  private Future<CheckResult> submitBatchCheck(final LanguageToolPool.Key key, final String text,
+                                               final CancellationToken token) throws Exception {
+    final Callable<CheckResult> callable = new Callable<CheckResult>() {
+      @Override
+      public CheckResult call() throws Exception {
+        final JLanguageTool lt = getLanguageToolInstance(key, token);
+        try {
+          return check(lt, key, text);
+        } finally {
+          returnLanguageToolInstance(key, lt);
+        }
+      }
+    };
+    if (batchExecutorService != null) {
+      return batchExecutorService.submit(callable);
+    }
+    final FutureTask<CheckResult> task = new FutureTask<>(callable);
+    task.run();
+    return task;
+  }
+
+  private CheckResult getBatchResult(Future<CheckResult> future) throws Exception {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception) {
+        throw (Exception) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private CheckResult check(JLanguageTool lt, LanguageToolPool.Key key, String text) throws IOException {
+    if (resultCache != null && !usesGUIConfig(key)) {
+      return resultCache.check(lt, key, text);
+    }
+    final List<RuleMatch> matches = lt.check(text);
+    return new CheckResult(matches, lt.isPartialResult());
+  }
+
+  /**
+   * A token for the checks of one request, with a deadline if a check timeout is set.
+   */
+  private CancellationToken createCancellationToken() {
+    if (checkTimeoutMillis > 0) {
+      return new CancellationToken(checkTimeoutMillis);
+    }
+    return new CancellationToken();
+  }
+
+  private Language getMotherTongue(Map<String, String> parameters) {
+    final String motherTongueParam = parameters.get("motherTongue");
+    if (motherTongueParam != null) {
+      return Language.getLanguageForShortName(motherTongueParam);
+    }
+    return null;
+  }
+
+  /**
+   * The configuration for {@link #getLanguageToolInstance(LanguageToolPool.Key, CancellationToken)}, using the
+   * rule selection of the request parameters.
+   */
+  private LanguageToolPool.Key getKey(Language lang, Language motherTongue, Map<String, String> parameters) {
+    final String enabledParam = parameters.get("enabled");
+    final List<String> enabledRules = new ArrayList<>();
+    if (enabledParam != null) {
+      enabledRules.addAll(Arrays.asList(enabledParam.split(",")));
+    }
+    
+    boolean useEnabledOnly = false;
+    final String enabledOnlyParam = parameters.get("enabledOnly");
+    if (enabledOnlyParam != null) {
+      useEnabledOnly = enabledOnlyParam.equals("yes");
+    }
+    
+    final String disabledParam = parameters.get("disabled");
+    final List<String> disabledRules = new ArrayList<>();
+    if (disabledParam != null) {
+      disabledRules.addAll(Arrays.asList(disabledParam.split(",")));
+    }
+
+    if (disabledRules.size() > 0 && useEnabledOnly) {
+      throw new IllegalArgumentException("You cannot specify disabled rules using enabledOnly=yes");
+    }
+    return new LanguageToolPool.Key(lang, motherTongue, enabledRules, disabledRules, useEnabledOnly);
+  }
+
+  private void sendMatches(HttpExchange httpExchange, List<RuleMatch> matches, String text, Language lang,
+                           Language motherTongue) throws IOException {
+    // length 0 means chunked transfer encoding, so the XML doesn't need to be built in memory first:
+    httpExchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+    final Writer writer = new BufferedWriter(new OutputStreamWriter(httpExchange.getResponseBody(), ENCODING));
+    new RuleAsXmlSerializer().ruleMatchesToXml(matches, text, CONTEXT_SIZE, lang, motherTongue, writer);
+    writer.flush();
+  }
+
   private Map<String, String> parseQuery(String query) throws UnsupportedEncodingException {
     final Map<String, String> parameters = new HashMap<>();
     if (query != null) {
@@ -280,6 +591,22 @@ class LanguageToolHttpHandler implements HttpHandler {
     return parameters;
   }
 
+  /**
+   * All values of a parameter that may occur more than once, in the order they occur in the query.
+   */
+  private List<String> getParameterValues(String query, String name) throws UnsupportedEncodingException {
+    final List<String> values = new ArrayList<>();
+    if (query != null) {
+      for (String pair : query.split("[&]")) {
+        final int delimPos = pair.indexOf('=');
+        if (delimPos != -1 && URLDecoder.decode(pair.substring(0, delimPos), ENCODING).equals(name)) {
+          values.add(URLDecoder.decode(pair.substring(delimPos + 1), ENCODING));
+        }
+      }
+    }
+    return values;
+  }
+
   private Map<String, String> getParameterMap(String[] pairs) throws UnsupportedEncodingException {
     final Map<String, String> parameters = new HashMap<>();
     for (String pair : pairs) {
@@ -304,24 +631,50 @@ class LanguageToolHttpHandler implements HttpHandler {
     outputStream.println(now + " " + s);
   }
 
+  private interface Check {
+    void run() throws Exception;
+  }
+
   /**
    * Find or create a JLanguageTool instance for a specific language, mother tongue, and rule configuration.
-   *
-   * @param lang the language to be used.
-   * @param motherTongue the user's mother tongue or {@code null}
+   * The instance needs to be given back with {@link #returnLanguageToolInstance(LanguageToolPool.Key, JLanguageTool)}.
+   * @param token stops the checks of the instance, until it's given back
    */
-  private JLanguageTool getLanguageToolInstance(Language lang, Language motherTongue, QueryParams params) throws Exception {
-    final JLanguageTool newLanguageTool = new JLanguageTool(lang, motherTongue);
-    newLanguageTool.activateDefaultPatternRules();
-    newLanguageTool.activateDefaultFalseFriendRules();
-    final Configuration config = new Configuration(lang);
-    if (!params.useQuerySettings && internalServer && config.getUseGUIConfig()) { // use the GUI config values
-      configureGUI(newLanguageTool, config);
+  private JLanguageTool getLanguageToolInstance(LanguageToolPool.Key key, CancellationToken token) throws Exception {
+    final JLanguageTool languageTool = createOrBorrowLanguageToolInstance(key);
+    languageTool.setTimeBudgetMillis(maxCheckTimeMillis);
+    languageTool.setCancellationToken(token);
+    return languageTool;
+  }
+
+  private JLanguageTool createOrBorrowLanguageToolInstance(LanguageToolPool.Key key) throws Exception {
+    if (usesGUIConfig(key)) {
+      final JLanguageTool newLanguageTool = new JLanguageTool(key.getLanguage(), key.getMotherTongue());
+      newLanguageTool.activateDefaultPatternRules();
+      newLanguageTool.activateDefaultFalseFriendRules();
+      newLanguageTool.setCheckTimingListener(metrics);
+      final Configuration config = new Configuration(key.getLanguage());
+      if (config.getUseGUIConfig()) { // use the GUI config values
+        configureGUI(newLanguageTool, config);
+      }
+      return newLanguageTool;
     }
-    if (params.useQuerySettings) {
-      Tools.selectRules(newLanguageTool, params.disabledRules, params.enabledRules, params.useEnabledOnly);
+    return languageToolPool.borrowInstance(key);
+  }
+
+  private void returnLanguageToolInstance(LanguageToolPool.Key key, JLanguageTool lt) {
+    lt.setCancellationToken(null);
+    if (!usesGUIConfig(key)) {
+      languageToolPool.returnInstance(key, lt);
     }
-    return newLanguageTool;
+  }
+
+  /**
+   * The GUI configuration may change at any time, so instances of a server started from
+   * the GUI that might use it are not pooled.
+   */
+  private boolean usesGUIConfig(LanguageToolPool.Key key) {
+    return internalServer && !key.useQuerySettings();
   }
 
   private void configureGUI(JLanguageTool langTool, Configuration config) {
@@ -376,18 +729,4 @@ class LanguageToolHttpHandler implements HttpHandler {
     return xmlBuffer.toString();
   }
 
-  private class QueryParams {
-    final List<String> enabledRules;
-    final List<String> disabledRules;
-    final boolean useEnabledOnly;
-    final boolean useQuerySettings;
-
-    QueryParams(List<String> enabledRules, List<String> disabledRules, boolean useEnabledOnly, boolean useQuerySettings) {
-      this.enabledRules = enabledRules;
-      this.disabledRules = disabledRules;
-      this.useEnabledOnly = useEnabledOnly;
-      this.useQuerySettings = useQuerySettings;
-    }
-  }
-
 }
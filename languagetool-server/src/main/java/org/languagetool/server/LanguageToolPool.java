@@ -0,0 +1,328 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.languagetool.CheckTimingListener;
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.tools.Tools;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A pool of ready-to-use {@link JLanguageTool} instances, one sub-pool per
+ * language, mother tongue and rule selection. Creating a {@link JLanguageTool} with
+ * all pattern and false friend rules is often more expensive than the check itself,
+ * so instances are re-used across requests. Instances that have not been used for
+ * a given time are removed, and so are the least recently used instances if there are
+ * more than a given number of idle instances for all keys together. Clients can send
+ * any rule selection, so without that limit the number of keys would be unbounded.
+ * @since 2.6
+ */
+class LanguageToolPool {
+
+  // guarded by 'this' - the critical sections only move references, so they are short compared to a check:
+  private final Map<Key, Deque<PooledInstance>> pool = new HashMap<>();
+  private final int maxIdlePerKey;
+  private final int maxIdleTotal;
+  private final long maxIdleTimeMillis;
+  private final ScheduledExecutorService evictionService;
+
+  private int idleCount;
+  private CheckTimingListener timingListener;
+
+  /**
+   * @param maxIdlePerKey maximum number of idle instances kept per key, {@code 0} disables pooling
+   * @param maxIdleTimeSeconds idle instances unused for longer than this are removed from the pool
+   */
+  LanguageToolPool(int maxIdlePerKey, int maxIdleTimeSeconds) {
+    this(maxIdlePerKey, HTTPServerConfig.DEFAULT_POOL_MAX_TOTAL, maxIdleTimeSeconds);
+  }
+
+  /**
+   * @param maxIdlePerKey maximum number of idle instances kept per key, {@code 0} disables pooling
+   * @param maxIdleTotal maximum number of idle instances kept for all keys together; if there are
+   *                     more, the least recently used instance is removed, whatever its key
+   * @param maxIdleTimeSeconds idle instances unused for longer than this are removed from the pool
+   */
+  LanguageToolPool(int maxIdlePerKey, int maxIdleTotal, int maxIdleTimeSeconds) {
+    this.maxIdlePerKey = maxIdlePerKey;
+    this.maxIdleTotal = maxIdleTotal;
+    this.maxIdleTimeMillis = TimeUnit.SECONDS.toMillis(maxIdleTimeSeconds);
+    if (maxIdlePerKey > 0 && maxIdleTotal > 0 && maxIdleTimeSeconds > 0) {
+      evictionService = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory());
+      evictionService.scheduleWithFixedDelay(new Runnable() {
+        @Override
+        public void run() {
+          evictIdleInstances(System.currentTimeMillis());
+        }
+      }, maxIdleTimeSeconds, maxIdleTimeSeconds, TimeUnit.SECONDS);
+    } else {
+      evictionService = null;
+    }
+  }
+
+  /**
+   * @param timingListener set on all instances created afterwards, may be null
+   */
+  void setCheckTimingListener(CheckTimingListener timingListener) {
+    this.timingListener = timingListener;
+  }
+
+  /**
+   * Get an instance for the given configuration, either from the pool or newly created.
+   * Call {@link #returnInstance(Key, JLanguageTool)} once the instance is not needed anymore.
+   */
+  JLanguageTool borrowInstance(Key key) throws Exception {
+    final PooledInstance instance = takeIdleInstance(key);
+    if (instance != null) {
+      return instance.languageTool;
+    }
+    return createInstance(key);
+  }
+
+  private synchronized PooledInstance takeIdleInstance(Key key) {
+    final Deque<PooledInstance> instances = pool.get(key);
+    if (instances == null) {
+      return null;
+    }
+    // LIFO, so that rarely used instances at the end of the queue become idle and get removed:
+    final PooledInstance instance = instances.pollFirst();
+    if (instances.isEmpty()) {
+      pool.remove(key);
+    }
+    idleCount--;
+    return instance;
+  }
+
+  /**
+   * Return an instance borrowed via {@link #borrowInstance(Key)} so it can be used for later requests.
+   * It must not be used by the caller anymore after this call.
+   */
+  synchronized void returnInstance(Key key, JLanguageTool languageTool) {
+    if (maxIdlePerKey <= 0 || maxIdleTotal <= 0) {
+      return;
+    }
+    Deque<PooledInstance> instances = pool.get(key);
+    if (instances == null) {
+      instances = new ArrayDeque<>();
+      pool.put(key, instances);
+    }
+    if (instances.size() < maxIdlePerKey) {
+      instances.offerFirst(new PooledInstance(languageTool, System.currentTimeMillis()));
+      idleCount++;
+      if (idleCount > maxIdleTotal) {
+        evictLeastRecentlyUsed();
+      }
+    }
+  }
+
+  /**
+   * Create one instance for each of the given languages with the default rule configuration
+   * and put it into the pool, so the first requests don't need to wait for rule loading.
+   */
+  void warmUp(List<Language> languages) throws Exception {
+    for (Language language : languages) {
+      final Key key = new Key(language, null);
+      final long startTime = System.currentTimeMillis();
+      returnInstance(key, createInstance(key));
+      System.out.println("Warmed up " + language.getShortNameWithCountryAndVariant() + " in "
+              + (System.currentTimeMillis() - startTime) + "ms");
+    }
+  }
+
+  /**
+   * Number of idle instances in the pool, for all keys.
+   */
+  synchronized int getIdleCount() {
+    return idleCount;
+  }
+
+  /**
+   * Number of keys with idle instances in the pool.
+   */
+  synchronized int getKeyCount() {
+    return pool.size();
+  }
+
+  /**
+   * Number of idle instances in the pool, per language (short name with country and variant).
+   */
+  synchronized Map<String, Integer> getIdleCountByLanguage() {
+    final Map<String, Integer> counts = new TreeMap<>();
+    for (Map.Entry<Key, Deque<PooledInstance>> entry : pool.entrySet()) {
+      final String language = entry.getKey().getLanguage().getShortNameWithCountryAndVariant();
+      final Integer count = counts.get(language);
+      counts.put(language, (count == null ? 0 : count) + entry.getValue().size());
+    }
+    return counts;
+  }
+
+  // non-private for tests
+  synchronized void evictIdleInstances(long now) {
+    final Iterator<Deque<PooledInstance>> dequeIterator = pool.values().iterator();
+    while (dequeIterator.hasNext()) {
+      final Deque<PooledInstance> instances = dequeIterator.next();
+      final Iterator<PooledInstance> iterator = instances.descendingIterator();
+      while (iterator.hasNext()) {
+        final PooledInstance instance = iterator.next();
+        if (now - instance.lastUsed > maxIdleTimeMillis) {
+          iterator.remove();
+          idleCount--;
+        }
+      }
+      if (instances.isEmpty()) {
+        dequeIterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Remove the instance that has been idle for the longest time, whatever its key. The last
+   * instance of each deque is its least recently used one, so only those need to be compared.
+   */
+  private void evictLeastRecentlyUsed() {
+    Map.Entry<Key, Deque<PooledInstance>> oldest = null;
+    for (Map.Entry<Key, Deque<PooledInstance>> entry : pool.entrySet()) {
+      if (oldest == null || entry.getValue().peekLast().lastUsed < oldest.getValue().peekLast().lastUsed) {
+        oldest = entry;
+      }
+    }
+    if (oldest != null) {
+      oldest.getValue().pollLast();
+      idleCount--;
+      if (oldest.getValue().isEmpty()) {
+        pool.remove(oldest.getKey());
+      }
+    }
+  }
+
+  synchronized void shutdown() {
+    if (evictionService != null) {
+      evictionService.shutdownNow();
+    }
+    pool.clear();
+    idleCount = 0;
+  }
+
+  private JLanguageTool createInstance(Key key) throws Exception {
+    final JLanguageTool languageTool = new JLanguageTool(key.language, key.motherTongue);
+    languageTool.activateDefaultPatternRules();
+    languageTool.activateDefaultFalseFriendRules();
+    languageTool.setCheckTimingListener(timingListener);
+    if (key.useQuerySettings) {
+      Tools.selectRules(languageTool, key.disabledRules, key.enabledRules, key.useEnabledOnly);
+    }
+    return languageTool;
+  }
+
+  /**
+   * The configuration that a pooled instance has been created for. Instances
+   * are only re-used for requests with an equal key.
+   */
+  static class Key {
+
+    private final Language language;
+    private final Language motherTongue;
+    private final List<String> enabledRules;
+    private final List<String> disabledRules;
+    private final boolean useEnabledOnly;
+    private final boolean useQuerySettings;
+
+    Key(Language language, Language motherTongue) {
+      this(language, motherTongue, Collections.<String>emptyList(), Collections.<String>emptyList(), false);
+    }
+
+    Key(Language language, Language motherTongue, List<String> enabledRules, List<String> disabledRules, boolean useEnabledOnly) {
+      this.language = Objects.requireNonNull(language);
+      this.motherTongue = motherTongue;
+      this.enabledRules = new ArrayList<>(enabledRules);
+      this.disabledRules = new ArrayList<>(disabledRules);
+      this.useEnabledOnly = useEnabledOnly;
+      this.useQuerySettings = enabledRules.size() > 0 || disabledRules.size() > 0;
+      // the order of rule ids is not relevant:
+      Collections.sort(this.enabledRules);
+      Collections.sort(this.disabledRules);
+    }
+
+    Language getLanguage() {
+      return language;
+    }
+
+    Language getMotherTongue() {
+      return motherTongue;
+    }
+
+    boolean useQuerySettings() {
+      return useQuerySettings;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      final Key other = (Key) o;
+      return useEnabledOnly == other.useEnabledOnly
+              && language.getShortNameWithCountryAndVariant().equals(other.language.getShortNameWithCountryAndVariant())
+              && Objects.equals(motherTongue == null ? null : motherTongue.getShortNameWithCountryAndVariant(),
+                                other.motherTongue == null ? null : other.motherTongue.getShortNameWithCountryAndVariant())
+              && enabledRules.equals(other.enabledRules)
+              && disabledRules.equals(other.disabledRules);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(language.getShortNameWithCountryAndVariant(),
+              motherTongue == null ? null : motherTongue.getShortNameWithCountryAndVariant(),
+              enabledRules, disabledRules, useEnabledOnly);
+    }
+  }
+
+  private static class PooledInstance {
+    private final JLanguageTool languageTool;
+    private final long lastUsed;
+    PooledInstance(JLanguageTool languageTool, long lastUsed) {
+      this.languageTool = languageTool;
+      this.lastUsed = lastUsed;
+    }
+  }
+
+  private static class DaemonThreadFactory implements ThreadFactory {
+    @Override
+    public Thread newThread(Runnable r) {
+      final Thread thread = new Thread(r, "lt-pool-eviction");
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
+}
@@ -18,21 +18,33 @@
  */
 package org.languagetool.server;
 
-import java.util.Date;
 import java.util.Iterator;
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Limit the maximum number of request per IP address for a given time range.
+ * Requests are counted per IP address in a ring of time buckets, so the cost
+ * per request doesn't depend on the number of clients. Thread-safe without locking.
  */
 class RequestLimiter {
 
-  private static final int API_REQUEST_QUEUE_SIZE = 1000;
+  // the time period is split into this many buckets:
+  private static final int BUCKETS = 20;
+  // one more bucket for the current, incomplete time slot:
+  private static final int RING_SIZE = BUCKETS + 1;
+  // a bucket's value stores its time slot in the upper bits and its count in the lower bits:
+  private static final int COUNT_BITS = 22;
+  private static final long MAX_COUNT = (1L << COUNT_BITS) - 1;
 
-  private final List<RequestEvent> requestEvents = new CopyOnWriteArrayList<>();
+  private final ConcurrentMap<String, RequestWindow> windows = new ConcurrentHashMap<>();
+  private final AtomicLong nextCleanupTime = new AtomicLong();
   private final int requestLimit;
   private final int requestLimitPeriodInSeconds;
+  private final long bucketMillis;
 
   /**
    * @param requestLimit the maximum number of request per <tt>requestLimitPeriodInSeconds</tt>
@@ -41,6 +53,7 @@ class RequestLimiter {
   RequestLimiter(int requestLimit, int requestLimitPeriodInSeconds) {
     this.requestLimit = requestLimit;
     this.requestLimitPeriodInSeconds = requestLimitPeriodInSeconds;
+    this.bucketMillis = Math.max(1, requestLimitPeriodInSeconds * 1000L / BUCKETS);
   }
 
   /**
@@ -62,38 +75,92 @@ class RequestLimiter {
    * @return true if access is allowed because the request limit is not reached yet
    */
   boolean isAccessOkay(String ipAddress) {
-    while (requestEvents.size() > API_REQUEST_QUEUE_SIZE) {
-      requestEvents.remove(0);
+    final long slot = System.currentTimeMillis() / bucketMillis;
+    removeIdleWindows(slot);
+    RequestWindow window = windows.get(ipAddress);
+    if (window == null) {
+      final RequestWindow newWindow = new RequestWindow();
+      window = windows.putIfAbsent(ipAddress, newWindow);
+      if (window == null) {
+        window = newWindow;
+      }
     }
-    requestEvents.add(new RequestEvent(ipAddress, new Date()));
-    return !limitReached(ipAddress);
+    // like before, rejected requests count, too:
+    return window.addRequest(slot) <= requestLimit;
+  }
+
+  /**
+   * Number of IP addresses with requests in the current time period (or a bit longer,
+   * as idle addresses are only removed from time to time).
+   */
+  int getClientCount() {
+    return windows.size();
   }
-  
-  private boolean limitReached(String ipAddress) {
-    int requestsByIp = 0;
-    // all requests before this date are considered old:
-    Date thresholdDate = new Date(System.currentTimeMillis() - requestLimitPeriodInSeconds * 1000);
-    Iterator<RequestEvent> iterator = requestEvents.iterator();
-    while (iterator.hasNext()) {
-      RequestEvent requestEvent = iterator.next();
-      if (requestEvent.ip.equals(ipAddress) && requestEvent.date.after(thresholdDate)) {
-        requestsByIp++;
-        if (requestsByIp > requestLimit) {
-          return true;
+
+  // Removes the windows of IP addresses without requests in the time period. This happens
+  // at most once per time period, so the cost per request is constant on average.
+  // A request counted at the same time for an address that's being removed may get lost,
+  // which is okay as the address was idle anyway.
+  private void removeIdleWindows(long slot) {
+    final long cleanupTime = nextCleanupTime.get();
+    if (slot >= cleanupTime && nextCleanupTime.compareAndSet(cleanupTime, slot + RING_SIZE)) {
+      final Iterator<Map.Entry<String, RequestWindow>> iterator = windows.entrySet().iterator();
+      while (iterator.hasNext()) {
+        if (iterator.next().getValue().isIdle(slot)) {
+          iterator.remove();
         }
       }
     }
-    return false;
   }
-  
-  class RequestEvent {
 
-    private final String ip;
-    private final Date date;
+  /**
+   * The requests of one IP address in the last {@link #RING_SIZE} time slots.
+   */
+  static class RequestWindow {
+
+    private final AtomicLongArray buckets = new AtomicLongArray(RING_SIZE);
+
+    /**
+     * Count a request and return the number of requests in the time period, including this one.
+     * To never allow more requests than the limit, the period is rounded up to whole buckets,
+     * i.e. it's up to one bucket longer than configured.
+     */
+    long addRequest(long slot) {
+      final int index = (int) (slot % RING_SIZE);
+      while (true) {
+        final long value = buckets.get(index);
+        final long newValue;
+        if (value >>> COUNT_BITS == slot) {
+          newValue = value + (getCount(value) < MAX_COUNT ? 1 : 0);
+        } else {
+          // the bucket is from an older time slot, so start counting again:
+          newValue = (slot << COUNT_BITS) | 1;
+        }
+        if (buckets.compareAndSet(index, value, newValue)) {
+          break;
+        }
+      }
+      long count = 0;
+      for (int i = 0; i < RING_SIZE; i++) {
+        final long value = buckets.get(i);
+        if (slot - (value >>> COUNT_BITS) <= BUCKETS) {
+          count += getCount(value);
+        }
+      }
+      return count;
+    }
+
+    boolean isIdle(long slot) {
+      for (int i = 0; i < RING_SIZE; i++) {
+        if (slot - (buckets.get(i) >>> COUNT_BITS) <= BUCKETS) {
+          return false;
+        }
+      }
+      return true;
+    }
 
-    RequestEvent(String ip, Date date) {
-      this.ip = ip;
-      this.date = date;
+    private long getCount(long value) {
+      return value & MAX_COUNT;
     }
   }
 
@@ -0,0 +1,179 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the number of texts that are checked at the same time. A request that cannot
+ * be checked immediately waits in a queue of limited size, but not longer than a
+ * configured time. If the queue is full or the time is over, the request is rejected.
+ * Short texts can have their own lane, so they don't need to wait for long texts.
+ * Thread-safe.
+ * @since 2.6
+ */
+class RequestScheduler {
+
+  private final Lane lane;
+  private final Lane shortTextLane;
+  private final int shortTextLength;
+  private final int maxQueueWaitTimeInSeconds;
+
+  RequestScheduler(HTTPServerConfig config) {
+    maxQueueWaitTimeInSeconds = config.getMaxQueueWaitTimeInSeconds();
+    lane = new Lane("texts", config.getThreads(), config.getMaxQueueSize(), maxQueueWaitTimeInSeconds);
+    if (config.getShortTextThreads() > 0) {
+      shortTextLane = new Lane("short texts", config.getShortTextThreads(), config.getMaxQueueSize(), maxQueueWaitTimeInSeconds);
+    } else {
+      shortTextLane = null;
+    }
+    shortTextLength = config.getShortTextLength();
+  }
+
+  /**
+   * The lane in which a text of the given length is checked.
+   */
+  Lane getLane(int textLength) {
+    if (shortTextLane != null && textLength <= shortTextLength) {
+      return shortTextLane;
+    }
+    return lane;
+  }
+
+  List<Lane> getLanes() {
+    final List<Lane> lanes = new ArrayList<>();
+    lanes.add(lane);
+    if (shortTextLane != null) {
+      lanes.add(shortTextLane);
+    }
+    return lanes;
+  }
+
+  /**
+   * The maximum number of requests that are being checked or waiting at the same time.
+   */
+  int getMaxRequests() {
+    int max = lane.getMaxRequests();
+    if (shortTextLane != null) {
+      max += shortTextLane.getMaxRequests();
+    }
+    return max;
+  }
+
+  /**
+   * The time in seconds after which a rejected request should be tried again, as sent
+   * in the {@code Retry-After} header.
+   */
+  int getRetryAfterSeconds() {
+    return Math.max(1, maxQueueWaitTimeInSeconds);
+  }
+
+  static class Lane {
+
+    private final String name;
+    private final Semaphore permits;
+    private final int threads;
+    private final int maxQueueSize;
+    private final long maxWaitMillis;
+    private final AtomicInteger queueSize = new AtomicInteger();
+
+    Lane(String name, int threads, int maxQueueSize, int maxQueueWaitTimeInSeconds) {
+      if (threads < 1) {
+        throw new IllegalArgumentException("Number of threads must be >= 1: " + threads);
+      }
+      if (maxQueueSize < 0) {
+        throw new IllegalArgumentException("Maximum queue size must be >= 0: " + maxQueueSize);
+      }
+      this.name = name;
+      // fair, so requests are checked in the order they arrived:
+      this.permits = new Semaphore(threads, true);
+      this.threads = threads;
+      this.maxQueueSize = maxQueueSize;
+      this.maxWaitMillis = TimeUnit.SECONDS.toMillis(maxQueueWaitTimeInSeconds);
+    }
+
+    /**
+     * Wait until the text can be checked. If this returns {@code true}, {@link #release()}
+     * must be called after the check.
+     * @return {@code false} if the request is rejected because the queue is full or
+     *   the maximum time to wait is over
+     */
+    boolean acquire() throws InterruptedException {
+      return acquire(1);
+    }
+
+    /**
+     * Like {@link #acquire()}, but for a request whose texts are checked by several threads
+     * at the same time, so that it counts as that many checks.
+     * @param count the number of permits, as returned by {@link #getPermits(int)}
+     */
+    boolean acquire(int count) throws InterruptedException {
+      if (permits.tryAcquire(count, 0, TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+      if (queueSize.incrementAndGet() > maxQueueSize) {
+        queueSize.decrementAndGet();
+        return false;
+      }
+      try {
+        return permits.tryAcquire(count, maxWaitMillis, TimeUnit.MILLISECONDS);
+      } finally {
+        queueSize.decrementAndGet();
+      }
+    }
+
+    void release() {
+      release(1);
+    }
+
+    void release(int count) {
+      permits.release(count);
+    }
+
+    /**
+     * The number of permits needed for a request checked by the given number of threads,
+     * at most the number of threads of this lane, so the request can be checked at all.
+     */
+    int getPermits(int threads) {
+      return Math.max(1, Math.min(threads, this.threads));
+    }
+
+    String getName() {
+      return name;
+    }
+
+    int getQueueSize() {
+      return queueSize.get();
+    }
+
+    int getMaxRequests() {
+      return threads + maxQueueSize;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+}
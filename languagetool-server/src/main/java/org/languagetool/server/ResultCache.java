@@ -0,0 +1,266 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.languagetool.JLanguageTool;
+import org.languagetool.rules.RuleMatch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the matches of single paragraphs, so that clients like editor plugins that
+ * send the same text again and again while the user is typing only cause the
+ * changed paragraphs to be checked. The least recently used paragraphs are removed
+ * if the cache is full, and paragraphs are removed once they are older than a given time.
+ * With the cache, each paragraph is checked on its own, so rules that work
+ * across paragraphs don't see the other paragraphs of the text. Paragraphs for which rules
+ * have been skipped because of the time budget are not cached. The paragraphs are cached
+ * with {@code \n} as line break, so a paragraph sent with {@code \r\n} by one client and with
+ * {@code \n} by another one is only checked once. Other whitespace is kept as it is, as rules
+ * may match it (e.g. duplicate spaces at the end of a paragraph). Thread-safe.
+ * @since 2.6
+ */
+class ResultCache {
+
+  private final Map<CacheKey, CacheEntry> entries;
+  private final long maxAgeMillis;
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+
+  /**
+   * @param maxSize maximum number of paragraphs in the cache
+   * @param maxAgeSeconds paragraphs older than this are checked again
+   */
+  ResultCache(final int maxSize, int maxAgeSeconds) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("Cache size must be >= 1: " + maxSize);
+    }
+    this.maxAgeMillis = TimeUnit.SECONDS.toMillis(maxAgeSeconds);
+    // access order, so the least recently used entry comes first:
+    this.entries = new LinkedHashMap<CacheKey, CacheEntry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+        if (size() > maxSize) {
+          evictionCount.incrementAndGet();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Check the text paragraph by paragraph, using the cached matches for paragraphs that
+   * have been checked before with the same configuration.
+   * @param key the configuration {@code languageTool} has been created for
+   * @return the matches, with positions relative to the complete text
+   */
+  CheckResult check(JLanguageTool languageTool, LanguageToolPool.Key key, String text) throws IOException {
+    final boolean singleLineBreaksMarksPara = languageTool.getLanguage().getSentenceTokenizer().singleLineBreaksMarksPara();
+    final List<RuleMatch> matches = new ArrayList<>();
+    int offset = 0;
+    int lineOffset = 0;
+    boolean partial = false;
+    for (String paragraph : getParagraphs(text, singleLineBreaksMarksPara)) {
+      final String normalizedParagraph = normalizeLineBreaks(paragraph);
+      final CacheKey cacheKey = new CacheKey(key, normalizedParagraph);
+      List<RuleMatch> paragraphMatches = get(cacheKey, System.currentTimeMillis());
+      if (paragraphMatches == null) {
+        paragraphMatches = languageTool.check(normalizedParagraph);
+        if (languageTool.isPartialResult()) {
+          partial = true;
+        } else {
+          put(cacheKey, paragraphMatches, System.currentTimeMillis());
+        }
+      }
+      final int[] removedCarriageReturns = getRemovedCarriageReturns(paragraph, normalizedParagraph);
+      for (RuleMatch match : paragraphMatches) {
+        matches.add(shift(match, offset, lineOffset, removedCarriageReturns));
+      }
+      offset += paragraph.length();
+      lineOffset += countLineBreaks(paragraph);
+    }
+    return new CheckResult(matches, partial);
+  }
+
+  long getHitCount() {
+    return hitCount.get();
+  }
+
+  long getMissCount() {
+    return missCount.get();
+  }
+
+  /**
+   * Number of paragraphs removed because the cache was full or they were too old.
+   */
+  long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  synchronized int getSize() {
+    return entries.size();
+  }
+
+  // non-private for tests
+  synchronized List<RuleMatch> get(CacheKey cacheKey, long now) {
+    final CacheEntry entry = entries.get(cacheKey);
+    if (entry == null) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    if (now - entry.creationTime > maxAgeMillis) {
+      entries.remove(cacheKey);
+      evictionCount.incrementAndGet();
+      missCount.incrementAndGet();
+      return null;
+    }
+    hitCount.incrementAndGet();
+    return entry.matches;
+  }
+
+  // non-private for tests
+  synchronized void put(CacheKey cacheKey, List<RuleMatch> matches, long now) {
+    entries.put(cacheKey, new CacheEntry(matches, now));
+  }
+
+  /**
+   * Split the text after each paragraph break, i.e. after two or more line breaks, or after
+   * each line break if {@code singleLineBreaksMarksPara} is true. Joining the paragraphs
+   * results in the original text.
+   */
+  static List<String> getParagraphs(String text, boolean singleLineBreaksMarksPara) {
+    final List<String> paragraphs = new ArrayList<>();
+    final int minLineBreaks = singleLineBreaksMarksPara ? 1 : 2;
+    int start = 0;
+    int i = 0;
+    while (i < text.length()) {
+      int lineBreaks = 0;
+      int end = i;
+      while (end < text.length() && (text.charAt(end) == '\n' || text.charAt(end) == '\r')) {
+        if (text.charAt(end) == '\n') {
+          lineBreaks++;
+        }
+        end++;
+      }
+      if (lineBreaks >= minLineBreaks) {
+        paragraphs.add(text.substring(start, end));
+        start = end;
+      }
+      i = Math.max(end, i + 1);
+    }
+    if (start < text.length() || paragraphs.isEmpty()) {
+      paragraphs.add(text.substring(start));
+    }
+    return paragraphs;
+  }
+
+  /**
+   * Replace each {@code \r\n} by {@code \n}. The number of lines and the columns stay the same.
+   */
+  static String normalizeLineBreaks(String paragraph) {
+    return paragraph.indexOf('\r') == -1 ? paragraph : paragraph.replace("\r\n", "\n");
+  }
+
+  /**
+   * The positions in {@code normalizedParagraph} in front of which a {@code \r} has been
+   * removed, in ascending order.
+   */
+  static int[] getRemovedCarriageReturns(String paragraph, String normalizedParagraph) {
+    final int[] positions = new int[paragraph.length() - normalizedParagraph.length()];
+    int count = 0;
+    for (int i = 0; i < paragraph.length() - 1 && count < positions.length; i++) {
+      if (paragraph.charAt(i) == '\r' && paragraph.charAt(i + 1) == '\n') {
+        positions[count] = i - count;
+        count++;
+      }
+    }
+    return positions;
+  }
+
+  /**
+   * Map a position in the normalized paragraph to the position in the paragraph as sent.
+   */
+  static int toOriginalPosition(int pos, int[] removedCarriageReturns) {
+    int removed = 0;
+    while (removed < removedCarriageReturns.length && removedCarriageReturns[removed] < pos) {
+      removed++;
+    }
+    return pos + removed;
+  }
+
+  // Cached matches are never given out, as their positions are relative to the paragraph.
+  // Each paragraph starts at column 1 after a line break, and removed carriage returns
+  // are always at the end of a line, so they don't change the columns.
+  private RuleMatch shift(RuleMatch match, int offset, int lineOffset, int[] removedCarriageReturns) {
+    return match.copyWithPosition(toOriginalPosition(match.getFromPos(), removedCarriageReturns) + offset,
+            toOriginalPosition(match.getToPos(), removedCarriageReturns) + offset, lineOffset, 1);
+  }
+
+  private static int countLineBreaks(String s) {
+    int count = 0;
+    for (int i = 0; i < s.length(); i++) {
+      if (s.charAt(i) == '\n') {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  static class CacheKey {
+
+    private final LanguageToolPool.Key key;
+    private final String text;
+
+    CacheKey(LanguageToolPool.Key key, String text) {
+      this.key = key;
+      this.text = text;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      final CacheKey other = (CacheKey) o;
+      return text.equals(other.text) && key.equals(other.key);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * key.hashCode() + text.hashCode();
+    }
+  }
+
+  private static class CacheEntry {
+    private final List<RuleMatch> matches;
+    private final long creationTime;
+    CacheEntry(List<RuleMatch> matches, long creationTime) {
+      this.matches = matches;
+      this.creationTime = creationTime;
+    }
+  }
+
+}
@@ -20,12 +20,32 @@ package org.languagetool.server;
 
 import com.sun.net.httpserver.HttpServer;
 import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import static org.languagetool.server.HTTPServerConfig.DEFAULT_BATCH_THREADS;
+import static org.languagetool.server.HTTPServerConfig.DEFAULT_CACHE_TTL;
+import static org.languagetool.server.HTTPServerConfig.DEFAULT_MAX_QUEUE_SIZE;
+import static org.languagetool.server.HTTPServerConfig.DEFAULT_MAX_QUEUE_WAIT_TIME;
+import static org.languagetool.server.HTTPServerConfig.DEFAULT_POOL_IDLE_TIME;
+import static org.languagetool.server.HTTPServerConfig.DEFAULT_POOL_MAX_TOTAL;
+import static org.languagetool.server.HTTPServerConfig.DEFAULT_POOL_SIZE;
 import static org.languagetool.server.HTTPServerConfig.DEFAULT_PORT;
+import static org.languagetool.server.HTTPServerConfig.DEFAULT_SHORT_TEXT_LENGTH;
+import static org.languagetool.server.HTTPServerConfig.DEFAULT_SHORT_TEXT_THREADS;
+import static org.languagetool.server.HTTPServerConfig.DEFAULT_THREADS;
 
 /**
  * Super class for HTTP and HTTPS server.
@@ -41,11 +61,16 @@ abstract class Server {
             "0:0:0:0:0:0:0:1%0",   // some(?) Mac OS X
             "127.0.0.1"
     ));
-  static final int THREAD_POOL_SIZE = 10;
+  // threads in addition to those for running and queued checks, so requests can be rejected quickly:
+  private static final int EXTRA_THREADS = 5;
+  private static final int IDLE_THREAD_TIMEOUT_SECONDS = 60;
 
   protected int port;
   protected String host;
   protected HttpServer server;
+  protected LanguageToolPool languageToolPool;
+  protected ExecutorService batchExecutorService;
+  protected List<Language> warmUpLanguages = new ArrayList<>();
 
   private boolean isRunning;
 
@@ -56,6 +81,13 @@ abstract class Server {
     final String hostName = host != null ? host : "localhost";
     System.out.println("Starting LanguageTool " + JLanguageTool.VERSION +
             " (build date: " + JLanguageTool.BUILD_DATE + ") server on " + getProtocol() + "://" + hostName + ":" + port  + "...");
+    if (languageToolPool != null && !warmUpLanguages.isEmpty()) {
+      try {
+        languageToolPool.warmUp(warmUpLanguages);
+      } catch (Exception e) {
+        throw new RuntimeException("Could not warm up languages " + warmUpLanguages, e);
+      }
+    }
     server.start();
     isRunning = true;
     System.out.println("Server started");
@@ -68,6 +100,12 @@ abstract class Server {
     if (server != null) {
       System.out.println("Stopping server");
       server.stop(0);
+      if (languageToolPool != null) {
+        languageToolPool.shutdown();
+      }
+      if (batchExecutorService != null) {
+        batchExecutorService.shutdownNow();
+      }
       isRunning = false;
       System.out.println("Server stopped");
     }
@@ -81,6 +119,84 @@ abstract class Server {
     return isRunning;
   }
 
+  /**
+   * Create the executor that handles the requests. A request waiting to be checked blocks
+   * its thread, so there's a thread for every running and waiting request in the scheduler.
+   * If even more connections arrive, only a limited number of them wait for a thread, the
+   * others are answered with HTTP status 503 (Service Unavailable) right away.
+   */
+  protected static ExecutorService createExecutorService(RequestScheduler scheduler) {
+    final int threads = scheduler.getMaxRequests() + EXTRA_THREADS;
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+            IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(threads),
+            new OverloadedPolicy());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Whether the current thread handles a request that the executor has rejected,
+   * see {@link OverloadedPolicy}.
+   */
+  static boolean isOverloaded() {
+    return OverloadedPolicy.REJECTING.get();
+  }
+
+  /**
+   * Handles an exchange that doesn't fit into the executor's queue in the calling thread, but
+   * marks it so the handler only answers with status 503 instead of reading and checking it.
+   * Just dropping the exchange would leave the client waiting for an answer.
+   */
+  private static class OverloadedPolicy implements RejectedExecutionHandler {
+
+    private static final ThreadLocal<Boolean> REJECTING = new ThreadLocal<Boolean>() {
+      @Override
+      protected Boolean initialValue() {
+        return false;
+      }
+    };
+
+    @Override
+    public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+      if (executor.isShutdown()) {
+        throw new RejectedExecutionException("Server is stopped");
+      }
+      REJECTING.set(true);
+      try {
+        r.run();
+      } finally {
+        REJECTING.remove();
+      }
+    }
+  }
+
+  /**
+   * Create the statistics served at {@code /metrics} and make the handler and the pool use them.
+   */
+  protected void setUpMetrics(LanguageToolHttpHandler httpHandler) {
+    final ServerMetrics metrics = new ServerMetrics();
+    languageToolPool.setCheckTimingListener(metrics);
+    httpHandler.setServerMetrics(metrics);
+  }
+
+  /**
+   * Create the executor that checks the texts of batch requests and set it on the handler.
+   */
+  protected void setUpBatchChecks(LanguageToolHttpHandler httpHandler, HTTPServerConfig config) {
+    batchExecutorService = Executors.newFixedThreadPool(config.getBatchThreads());
+    httpHandler.setBatchExecutorService(batchExecutorService, config.getBatchThreads());
+  }
+
+  /**
+   * @return the cache for check results, or {@code null} if it's disabled in the configuration
+   */
+  protected static ResultCache createResultCacheOrNull(HTTPServerConfig config) {
+    if (config.getCacheSize() > 0) {
+      return new ResultCache(config.getCacheSize(), config.getCacheTtlInSeconds());
+    }
+    return null;
+  }
+
   protected static boolean usageRequested(String[] args) {
     return args.length == 1 && (args[0].equals("-h") || args[0].equals("--help"));
   }
@@ -92,6 +208,29 @@ abstract class Server {
     System.out.println("  --allow-origin ORIGIN  set the Access-Control-Allow-Origin header in the HTTP response,");
     System.out.println("                         used for direct (non-proxy) JavaScript-based access from browsers;");
     System.out.println("                         example: --allow-origin \"*\"");
+    System.out.println("  --pool-size N  maximum number of idle checker instances kept per language and rule");
+    System.out.println("                 configuration, defaults to " + DEFAULT_POOL_SIZE + ", 0 disables pooling");
+    System.out.println("  --pool-max-total N  maximum number of idle checker instances kept for all languages and rule");
+    System.out.println("                 configurations together, defaults to " + DEFAULT_POOL_MAX_TOTAL);
+    System.out.println("  --pool-idle-time SECONDS  remove checker instances not used for this time, defaults to " + DEFAULT_POOL_IDLE_TIME);
+    System.out.println("  --warm-up LANGS  comma-separated language codes to load at startup, example: --warm-up en-US,de-DE");
+    System.out.println("  --threads N    number of texts checked at the same time, defaults to " + DEFAULT_THREADS);
+    System.out.println("  --queue-size N  maximum number of requests waiting to be checked, per lane, defaults to " + DEFAULT_MAX_QUEUE_SIZE + ";");
+    System.out.println("                 more requests are rejected with HTTP status 503");
+    System.out.println("  --queue-wait-time SECONDS  maximum time a request waits to be checked before it's rejected");
+    System.out.println("                 with HTTP status 503, defaults to " + DEFAULT_MAX_QUEUE_WAIT_TIME);
+    System.out.println("  --short-text-threads N  number of short texts checked at the same time in their own lane,");
+    System.out.println("                 defaults to " + DEFAULT_SHORT_TEXT_THREADS + ", 0 disables the lane for short texts");
+    System.out.println("  --short-text-length N  maximum length of short texts in characters, defaults to " + DEFAULT_SHORT_TEXT_LENGTH);
+    System.out.println("  --batch-threads N  number of threads checking the texts of a request to /batch,");
+    System.out.println("                 defaults to " + DEFAULT_BATCH_THREADS);
+    System.out.println("  --cache-size N  number of paragraphs whose check results are cached, defaults to 0 (no cache);");
+    System.out.println("                 with the cache, each paragraph is checked on its own");
+    System.out.println("  --cache-ttl SECONDS  remove cached results after this time, defaults to " + DEFAULT_CACHE_TTL);
+    System.out.println("  --max-check-time MS  skip the remaining rules once checking a text (or a paragraph, with the");
+    System.out.println("                 cache) takes longer, and mark the result as partial; defaults to 0 (no limit)");
+    System.out.println("  --check-timeout SECONDS  stop checking a request after this time and fail it with");
+    System.out.println("                 HTTP status 503, defaults to 0 (no limit)");
   }
 
 }
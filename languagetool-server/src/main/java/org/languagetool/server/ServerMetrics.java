@@ -0,0 +1,264 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.languagetool.CheckTimingListener;
+import org.languagetool.RuleTimings;
+import org.languagetool.rules.Rule;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Collects statistics about the requests and checks of the server and writes them
+ * in the Prometheus text format, as served at {@code /metrics}. Thread-safe.
+ * @since 2.6
+ */
+class ServerMetrics implements CheckTimingListener {
+
+  // upper bounds of the histogram buckets, in seconds:
+  private static final double[] REQUEST_BUCKETS = {0.01, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30};
+  private static final double[] STAGE_BUCKETS = {0.0001, 0.0005, 0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1};
+  // number of rules listed with their time:
+  private static final int SLOWEST_RULES = 20;
+
+  private final AtomicLong requestCount = new AtomicLong();
+  private final AtomicLong rejectedRequestCount = new AtomicLong();
+  private final AtomicLong failedRequestCount = new AtomicLong();
+  private final AtomicInteger activeRequestCount = new AtomicInteger();
+  private final Histogram requestDuration = new Histogram(REQUEST_BUCKETS);
+  private final Histogram[] stageDurations = new Histogram[Stage.values().length];
+  private final ConcurrentMap<String, AtomicLong> ruleNanos = new ConcurrentHashMap<>();
+
+  ServerMetrics() {
+    for (int i = 0; i < stageDurations.length; i++) {
+      stageDurations[i] = new Histogram(STAGE_BUCKETS);
+    }
+  }
+
+  /**
+   * Call when a request starts, and call {@link #requestDone()} when it's done.
+   */
+  void requestStarted() {
+    requestCount.incrementAndGet();
+    activeRequestCount.incrementAndGet();
+  }
+
+  void requestDone() {
+    activeRequestCount.decrementAndGet();
+  }
+
+  /**
+   * A request rejected because of the request limit or because the server is busy.
+   */
+  void requestRejected() {
+    rejectedRequestCount.incrementAndGet();
+  }
+
+  void requestFailed() {
+    failedRequestCount.incrementAndGet();
+  }
+
+  /**
+   * @param millis the time needed to check the text(s) of a request and send the result
+   */
+  void checkDone(long millis) {
+    requestDuration.add(TimeUnit.MILLISECONDS.toNanos(millis));
+  }
+
+  /**
+   * Number of requests currently being handled, including those waiting to be checked.
+   */
+  int getActiveRequestCount() {
+    return activeRequestCount.get();
+  }
+
+  @Override
+  public void stageDone(Stage stage, long nanos) {
+    stageDurations[stage.ordinal()].add(nanos);
+  }
+
+  /**
+   * Only called for a sample of the sentences, so the time is counted for all sentences
+   * the sampled one stands for.
+   */
+  @Override
+  public void ruleDone(Rule rule, long nanos) {
+    AtomicLong time = ruleNanos.get(rule.getId());
+    if (time == null) {
+      final AtomicLong newTime = new AtomicLong();
+      time = ruleNanos.putIfAbsent(rule.getId(), newTime);
+      if (time == null) {
+        time = newTime;
+      }
+    }
+    time.addAndGet(nanos * RuleTimings.SAMPLE_INTERVAL);
+  }
+
+  /**
+   * Write all metrics in the Prometheus text format.
+   * @param scheduler may be null
+   * @param pool may be null
+   * @param cache may be null
+   */
+  void write(Writer writer, RequestScheduler scheduler, LanguageToolPool pool, ResultCache cache) throws IOException {
+    writeMetric(writer, "languagetool_requests_total", "counter", "Requests received.", requestCount.get());
+    writeMetric(writer, "languagetool_requests_rejected_total", "counter",
+            "Requests rejected because of the request limit or because the server was busy.", rejectedRequestCount.get());
+    writeMetric(writer, "languagetool_requests_failed_total", "counter", "Requests that caused an error.", failedRequestCount.get());
+    writeMetric(writer, "languagetool_requests_active", "gauge", "Requests being checked or waiting to be checked.", activeRequestCount.get());
+    if (scheduler != null) {
+      writeHeader(writer, "languagetool_queue_size", "gauge", "Requests waiting to be checked, per lane.");
+      for (RequestScheduler.Lane lane : scheduler.getLanes()) {
+        writer.write("languagetool_queue_size{lane=\"" + escape(lane.getName()) + "\"} " + lane.getQueueSize() + "\n");
+      }
+    }
+
+    writeHeader(writer, "languagetool_check_duration_seconds", "histogram", "Time needed to check the text(s) of a request and send the result.");
+    requestDuration.write(writer, "languagetool_check_duration_seconds", "");
+    writeHeader(writer, "languagetool_stage_duration_seconds", "histogram",
+            "Time needed per stage: sentence tokenizing per text, the other stages per sentence.");
+    for (Stage stage : Stage.values()) {
+      stageDurations[stage.ordinal()].write(writer, "languagetool_stage_duration_seconds",
+              "stage=\"" + stage.name().toLowerCase(Locale.ENGLISH) + "\",");
+    }
+    writeHeader(writer, "languagetool_rule_duration_seconds_total", "counter",
+            "Time needed for matching, estimated from a sample of the sentences, for the "
+            + SLOWEST_RULES + " rules with the highest total time.");
+    for (Map.Entry<String, Long> entry : getSlowestRules(SLOWEST_RULES)) {
+      writer.write("languagetool_rule_duration_seconds_total{rule=\"" + escape(entry.getKey()) + "\"} "
+              + toSeconds(entry.getValue()) + "\n");
+    }
+
+    if (pool != null) {
+      writeHeader(writer, "languagetool_pool_idle_instances", "gauge", "Idle checker instances in the pool, per language.");
+      for (Map.Entry<String, Integer> entry : pool.getIdleCountByLanguage().entrySet()) {
+        writer.write("languagetool_pool_idle_instances{language=\"" + escape(entry.getKey()) + "\"} " + entry.getValue() + "\n");
+      }
+    }
+    if (cache != null) {
+      writeMetric(writer, "languagetool_cache_hits_total", "counter", "Paragraphs found in the result cache.", cache.getHitCount());
+      writeMetric(writer, "languagetool_cache_misses_total", "counter", "Paragraphs not found in the result cache.", cache.getMissCount());
+      writeMetric(writer, "languagetool_cache_evictions_total", "counter",
+              "Paragraphs removed from the result cache because it was full or they were too old.", cache.getEvictionCount());
+      writeMetric(writer, "languagetool_cache_size", "gauge", "Paragraphs in the result cache.", cache.getSize());
+    }
+    final MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    writeMetric(writer, "jvm_memory_heap_used_bytes", "gauge", "Used heap memory.", heap.getUsed());
+    writeMetric(writer, "jvm_memory_heap_max_bytes", "gauge", "Maximum heap memory.", heap.getMax());
+  }
+
+  // non-private for tests
+  List<Map.Entry<String, Long>> getSlowestRules(int maxRules) {
+    final List<Map.Entry<String, Long>> rules = new ArrayList<>();
+    for (Map.Entry<String, AtomicLong> entry : ruleNanos.entrySet()) {
+      rules.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue().get()));
+    }
+    Collections.sort(rules, new Comparator<Map.Entry<String, Long>>() {
+      @Override
+      public int compare(Map.Entry<String, Long> o1, Map.Entry<String, Long> o2) {
+        return Long.compare(o2.getValue(), o1.getValue());
+      }
+    });
+    return rules.subList(0, Math.min(maxRules, rules.size()));
+  }
+
+  private void writeMetric(Writer writer, String name, String type, String help, long value) throws IOException {
+    writeHeader(writer, name, type, help);
+    writer.write(name + " " + value + "\n");
+  }
+
+  private void writeHeader(Writer writer, String name, String type, String help) throws IOException {
+    writer.write("# HELP " + name + " " + help + "\n");
+    writer.write("# TYPE " + name + " " + type + "\n");
+  }
+
+  private static String escape(String labelValue) {
+    return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  private static String toSeconds(long nanos) {
+    return Double.toString(nanos / 1_000_000_000.0);
+  }
+
+  /**
+   * A histogram with fixed buckets, counting without locks.
+   */
+  static class Histogram {
+
+    private final double[] bucketBounds;
+    private final long[] bucketBoundsNanos;
+    private final AtomicLongArray bucketCounts;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sumNanos = new AtomicLong();
+
+    Histogram(double[] bucketBounds) {
+      this.bucketBounds = bucketBounds;
+      this.bucketBoundsNanos = new long[bucketBounds.length];
+      for (int i = 0; i < bucketBounds.length; i++) {
+        bucketBoundsNanos[i] = (long) (bucketBounds[i] * 1_000_000_000L);
+      }
+      // the last bucket is for values larger than all bounds:
+      this.bucketCounts = new AtomicLongArray(bucketBounds.length + 1);
+    }
+
+    void add(long nanos) {
+      int bucket = 0;
+      while (bucket < bucketBoundsNanos.length && nanos > bucketBoundsNanos[bucket]) {
+        bucket++;
+      }
+      bucketCounts.incrementAndGet(bucket);
+      sumNanos.addAndGet(nanos);
+      count.incrementAndGet();
+    }
+
+    /**
+     * Write the buckets (which are cumulative in Prometheus), the sum and the count.
+     * @param labels labels to put before the bucket's label, each followed by a comma
+     */
+    void write(Writer writer, String name, String labels) throws IOException {
+      long cumulativeCount = 0;
+      for (int i = 0; i < bucketBounds.length; i++) {
+        cumulativeCount += bucketCounts.get(i);
+        writer.write(name + "_bucket{" + labels + "le=\"" + bucketBounds[i] + "\"} " + cumulativeCount + "\n");
+      }
+      cumulativeCount += bucketCounts.get(bucketBounds.length);
+      writer.write(name + "_bucket{" + labels + "le=\"+Inf\"} " + cumulativeCount + "\n");
+      final String sumAndCountLabels = labels.isEmpty() ? "" : "{" + labels.substring(0, labels.length() - 1) + "}";
+      writer.write(name + "_sum" + sumAndCountLabels + " " + toSeconds(sumNanos.get()) + "\n");
+      writer.write(name + "_count" + sumAndCountLabels + " " + cumulativeCount + "\n");
+    }
+  }
+
+}
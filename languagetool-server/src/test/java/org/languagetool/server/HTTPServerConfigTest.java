@@ -46,6 +46,39 @@ public class HTTPServerConfigTest {
     assertThat(config4.getPort(), is(80));
     assertThat(config4.isPublicAccess(), is(true));
     assertThat(config4.isVerbose(), is(false));
+    assertThat(config4.getPoolSize(), is(HTTPServerConfig.DEFAULT_POOL_SIZE));
+    assertThat(config4.getPoolMaxTotal(), is(HTTPServerConfig.DEFAULT_POOL_MAX_TOTAL));
+    assertThat(config4.getWarmUpLanguages().size(), is(0));
+
+    final HTTPServerConfig config5 = new HTTPServerConfig("--pool-size 3 --pool-max-total 20 --pool-idle-time 60 --warm-up en-US,de".split(" "));
+    assertThat(config5.getPoolSize(), is(3));
+    assertThat(config5.getPoolMaxTotal(), is(20));
+    assertThat(config5.getPoolIdleTimeInSeconds(), is(60));
+    assertThat(config5.getWarmUpLanguages().size(), is(2));
+    assertThat(config5.getWarmUpLanguages().get(0).getShortNameWithCountryAndVariant(), is("en-US"));
+    assertThat(config5.getThreads(), is(HTTPServerConfig.DEFAULT_THREADS));
+    assertThat(config5.getMaxQueueSize(), is(HTTPServerConfig.DEFAULT_MAX_QUEUE_SIZE));
+
+    final HTTPServerConfig config6 = new HTTPServerConfig(("--threads 4 --queue-size 20 --queue-wait-time 5 " +
+            "--short-text-threads 0 --short-text-length 200").split(" "));
+    assertThat(config6.getThreads(), is(4));
+    assertThat(config6.getMaxQueueSize(), is(20));
+    assertThat(config6.getMaxQueueWaitTimeInSeconds(), is(5));
+    assertThat(config6.getShortTextThreads(), is(0));
+    assertThat(config6.getShortTextLength(), is(200));
+    assertThat(config6.getCacheSize(), is(0));
+
+    final HTTPServerConfig config7 = new HTTPServerConfig("--cache-size 1000 --cache-ttl 60".split(" "));
+    assertThat(config7.getCacheSize(), is(1000));
+    assertThat(config7.getCacheTtlInSeconds(), is(60));
+    assertThat(config7.getMaxCheckTimeMillis(), is(0));
+
+    final HTTPServerConfig config8 = new HTTPServerConfig("--max-check-time 500".split(" "));
+    assertThat(config8.getMaxCheckTimeMillis(), is(500));
+    assertThat(config8.getCheckTimeoutInSeconds(), is(0));
+
+    final HTTPServerConfig config9 = new HTTPServerConfig("--check-timeout 20".split(" "));
+    assertThat(config9.getCheckTimeoutInSeconds(), is(20));
   }
 
 }
@@ -21,13 +21,17 @@ package org.languagetool.server;
 import org.apache.commons.lang.StringUtils;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.languagetool.AnalyzedSentence;
 import org.languagetool.JLanguageTool;
 import org.languagetool.Language;
+import org.languagetool.RuleTimings;
 import org.languagetool.XMLValidator;
 import org.languagetool.language.English;
 import org.languagetool.language.German;
 import org.languagetool.language.Polish;
 import org.languagetool.language.Romanian;
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.RuleMatch;
 import org.languagetool.tools.StringTools;
 import org.xml.sax.SAXException;
 
@@ -212,6 +216,133 @@ public class HTTPServerTest {
     }
   }
 
+  @Test
+  public void testBatchCheck() throws Exception {
+    final HTTPServerConfig config = new HTTPServerConfig();
+    config.setBatchThreads(2);
+    final HTTPServer server = new HTTPServer(config, false);
+    try {
+      server.run();
+      final StringBuilder postData = new StringBuilder("language=en-US&disabled=HUNSPELL_RULE");
+      for (int i = 0; i < 10; i++) {
+        postData.append("&text=").append(URLEncoder.encode(i % 2 == 0 ? "This is an test." : "This is a test & more.", "UTF-8"));
+      }
+      final URL url = new URL("http://localhost:" + DEFAULT_PORT + "/batch");
+      final String result = HTTPTools.checkAtUrlByPost(url, postData.toString());
+      assertTrue(result.startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<batch software=\"LanguageTool\""));
+      assertTrue(result.endsWith("</batch>\n"));
+      assertEquals(10, StringUtils.countMatches(result, "<matches index="));
+      assertEquals(5, StringUtils.countMatches(result, "ruleId=\"EN_A_VS_AN\""));
+      assertTrue(result.contains("<matches index=\"8\">\n<error "));
+      assertTrue(result.contains("<matches index=\"9\">\n</matches>"));
+      try {
+        System.out.println("Testing 'missing language parameter' for batch checks now, please ignore the exception");
+        HTTPTools.checkAtUrlByPost(url, "text=foo");
+        fail();
+      } catch (IOException expected) {}
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void testBatchCheckWithFailingRule() throws Exception {
+    final HTTPServerConfig config = new HTTPServerConfig();
+    config.setBatchThreads(2);
+    final HTTPServer server = new HTTPServer(config, false);
+    try {
+      server.run();
+      // the instances the pool provides for the request contain a rule that fails for some texts:
+      final Language language = Language.getLanguageForShortName("en-US");
+      for (int i = 0; i < 4; i++) {
+        final JLanguageTool lt = new JLanguageTool(language);
+        lt.addRule(new FailingRule());
+        server.languageToolPool.returnInstance(new LanguageToolPool.Key(language, null), lt);
+      }
+      final String postData = "language=en-US&text=" + URLEncoder.encode("This is a test.", "UTF-8")
+              + "&text=" + URLEncoder.encode("This is a failure.", "UTF-8")
+              + "&text=" + URLEncoder.encode("This is another test.", "UTF-8");
+      System.out.println("Testing a failing rule for batch checks now, please ignore the exception");
+      final String result = HTTPTools.checkAtUrlByPost(new URL("http://localhost:" + DEFAULT_PORT + "/batch"), postData);
+      assertTrue(result.contains("<matches index=\"0\">"));
+      assertFalse(result.contains("<matches index=\"1\""));
+      assertTrue(result.contains("<exception index=\"1\" message=\"java.lang.RuntimeException: "));
+      assertTrue(result.endsWith("</batch>\n"));
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void testMaxCheckTime() throws Exception {
+    final HTTPServerConfig config = new HTTPServerConfig();
+    config.setMaxCheckTimeMillis(1);
+    final HTTPServer server = new HTTPServer(config, false);
+    try {
+      server.run();
+      final StringBuilder longText = new StringBuilder();
+      for (int i = 0; i < 100; i++) {
+        longText.append("This is an test. ");
+      }
+      final String postData = "language=en-US&disabled=HUNSPELL_RULE&text=" + URLEncoder.encode(longText.toString(), "UTF-8");
+      final String result = HTTPTools.checkAtUrlByPost(new URL("http://localhost:" + DEFAULT_PORT + "/batch"), postData);
+      assertTrue(result.contains("<matches index=\"0\" partial=\"true\">"));
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void testCheckTimeout() throws Exception {
+    final HTTPServerConfig config = new HTTPServerConfig();
+    config.setCheckTimeoutInSeconds(1);
+    final HTTPServer server = new HTTPServer(config, false);
+    try {
+      server.run();
+      // takes much longer than a second to check:
+      final StringBuilder longText = new StringBuilder();
+      for (int i = 0; i < 20000; i++) {
+        longText.append("This is an test. ");
+      }
+      final long startTime = System.currentTimeMillis();
+      try {
+        System.out.println("Testing 'check timeout' now, please ignore the exception");
+        checkByPOST(new English(), longText.toString());
+        fail();
+      } catch (IOException expected) {
+        assertTrue(expected.getMessage().contains("HTTP response code: 503"));
+      }
+      assertTrue(System.currentTimeMillis() - startTime < 10_000);
+      // the stopped instance can be used again:
+      assertTrue(check(new English(), "This is an test.").contains("EN_A_VS_AN"));
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void testMetrics() throws Exception {
+    final HTTPServer server = new HTTPServer(new HTTPServerConfig(), false);
+    try {
+      server.run();
+      // rules are only timed for a sample of the sentences:
+      final StringBuilder text = new StringBuilder();
+      for (int i = 0; i < RuleTimings.SAMPLE_INTERVAL; i++) {
+        text.append("This is an test. ");
+      }
+      check(new English(), text.toString());
+      final String metrics = HTTPTools.checkAtUrl(new URL("http://localhost:" + DEFAULT_PORT + "/metrics"));
+      assertTrue(metrics.contains("languagetool_requests_total 2\n"));
+      assertTrue(metrics.contains("languagetool_check_duration_seconds_count 1\n"));
+      assertTrue(metrics.contains("languagetool_stage_duration_seconds_count{stage=\"rule_matching\"} "
+              + RuleTimings.SAMPLE_INTERVAL + "\n"));
+      assertTrue(metrics.contains("languagetool_rule_duration_seconds_total{rule=\""));
+      assertTrue(metrics.contains("languagetool_pool_idle_instances{language=\"en\"} 1\n"));
+    } finally {
+      server.stop();
+    }
+  }
+
   private String bitextCheck(Language lang, Language motherTongue, String sourceText, String text) throws IOException {
     String urlOptions = "/?language=" + lang.getShortName();
     urlOptions += "&srctext=" + URLEncoder.encode(sourceText, "UTF-8");
@@ -268,4 +399,25 @@ public class HTTPServerTest {
     return HTTPTools.checkAtUrlByPost(url, postData);
   }
 
+  private static class FailingRule extends Rule {
+    @Override
+    public String getId() {
+      return "FAILING_RULE";
+    }
+    @Override
+    public String getDescription() {
+      return "A rule that fails for sentences with 'failure'";
+    }
+    @Override
+    public RuleMatch[] match(AnalyzedSentence sentence) throws IOException {
+      if (sentence.getTokenSet().contains("failure")) {
+        throw new RuntimeException("Rule failed");
+      }
+      return new RuleMatch[0];
+    }
+    @Override
+    public void reset() {
+    }
+  }
+
 }
@@ -0,0 +1,129 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2012 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.junit.Test;
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.language.English;
+import org.languagetool.language.German;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class LanguageToolPoolTest {
+
+  @Test
+  public void testBorrowAndReturn() throws Exception {
+    final LanguageToolPool pool = new LanguageToolPool(2, 0);
+    final LanguageToolPool.Key key = new LanguageToolPool.Key(new English(), null);
+    final JLanguageTool lt1 = pool.borrowInstance(key);
+    final JLanguageTool lt2 = pool.borrowInstance(key);
+    assertNotSame(lt1, lt2);
+    assertEquals(0, pool.getIdleCount());
+    pool.returnInstance(key, lt1);
+    assertEquals(1, pool.getIdleCount());
+    assertSame(lt1, pool.borrowInstance(key));
+    pool.returnInstance(key, lt1);
+    pool.returnInstance(key, lt2);
+    pool.returnInstance(key, pool.borrowInstance(new LanguageToolPool.Key(new English(), null)));
+    assertEquals("pool size is limited per key", 2, pool.getIdleCount());
+    pool.shutdown();
+  }
+
+  @Test
+  public void testKeys() throws Exception {
+    final LanguageToolPool pool = new LanguageToolPool(2, 0);
+    final LanguageToolPool.Key key = new LanguageToolPool.Key(new English(), null,
+            Arrays.asList("A", "B"), Collections.<String>emptyList(), false);
+    final LanguageToolPool.Key sameKey = new LanguageToolPool.Key(new English(), null,
+            Arrays.asList("B", "A"), Collections.<String>emptyList(), false);
+    final LanguageToolPool.Key otherKey = new LanguageToolPool.Key(new English(), new German(),
+            Arrays.asList("A", "B"), Collections.<String>emptyList(), false);
+    assertEquals(key, sameKey);
+    assertEquals(key.hashCode(), sameKey.hashCode());
+    assertFalse(key.equals(otherKey));
+    final JLanguageTool lt = pool.borrowInstance(key);
+    pool.returnInstance(key, lt);
+    assertSame(lt, pool.borrowInstance(sameKey));
+    pool.returnInstance(key, lt);
+    assertNotSame(lt, pool.borrowInstance(otherKey));
+    pool.shutdown();
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    final LanguageToolPool pool = new LanguageToolPool(2, 60);
+    final LanguageToolPool.Key key = new LanguageToolPool.Key(new English(), null);
+    pool.warmUp(Arrays.<Language>asList(new English()));
+    assertEquals(1, pool.getIdleCount());
+    pool.evictIdleInstances(System.currentTimeMillis());
+    assertEquals(1, pool.getIdleCount());
+    pool.evictIdleInstances(System.currentTimeMillis() + 61_000);
+    assertEquals(0, pool.getIdleCount());
+    assertEquals("keys without idle instances are removed", 0, pool.getKeyCount());
+    assertNotNull(pool.borrowInstance(key));
+    pool.shutdown();
+  }
+
+  @Test
+  public void testTotalLimit() throws Exception {
+    final LanguageToolPool pool = new LanguageToolPool(2, 3, 0);
+    final LanguageToolPool.Key key1 = ruleKey("A");
+    final LanguageToolPool.Key key2 = ruleKey("B");
+    final LanguageToolPool.Key key3 = ruleKey("C");
+    final JLanguageTool lt1 = pool.borrowInstance(key1);
+    final JLanguageTool lt2 = pool.borrowInstance(key2);
+    final JLanguageTool lt3 = pool.borrowInstance(key3);
+    final JLanguageTool lt4 = pool.borrowInstance(key3);
+    pool.returnInstance(key1, lt1);
+    Thread.sleep(5);
+    pool.returnInstance(key2, lt2);
+    Thread.sleep(5);
+    pool.returnInstance(key3, lt3);
+    assertEquals(3, pool.getIdleCount());
+    assertEquals(3, pool.getKeyCount());
+    pool.returnInstance(key3, lt4);
+    assertEquals("pool size is limited for all keys together", 3, pool.getIdleCount());
+    assertEquals("least recently used key is removed", 2, pool.getKeyCount());
+    assertNotSame(lt1, pool.borrowInstance(key1));
+    assertSame(lt2, pool.borrowInstance(key2));
+    assertEquals(1, pool.getKeyCount());
+    pool.shutdown();
+  }
+
+  @Test
+  public void testPoolingDisabled() throws Exception {
+    final LanguageToolPool pool = new LanguageToolPool(0, 0);
+    final LanguageToolPool.Key key = new LanguageToolPool.Key(new English(), null);
+    final JLanguageTool lt = pool.borrowInstance(key);
+    pool.returnInstance(key, lt);
+    assertEquals(0, pool.getIdleCount());
+    assertNotSame(lt, pool.borrowInstance(key));
+    pool.shutdown();
+  }
+
+  private LanguageToolPool.Key ruleKey(String disabledRule) {
+    return new LanguageToolPool.Key(new English(), null,
+            Collections.<String>emptyList(), Arrays.asList(disabledRule), false);
+  }
+
+}
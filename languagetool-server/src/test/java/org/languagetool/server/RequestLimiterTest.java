@@ -20,7 +20,9 @@ package org.languagetool.server;
 
 import org.junit.Test;
 
+import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 public class RequestLimiterTest {
@@ -42,5 +44,31 @@ public class RequestLimiterTest {
     assertTrue(limiter.isAccessOkay(secondIp));
     assertFalse(limiter.isAccessOkay(secondIp));
   }
+
+  @Test
+  public void testManyClients() throws Exception {
+    final RequestLimiter limiter = new RequestLimiter(2, 60);
+    for (int i = 0; i < 5000; i++) {
+      assertTrue(limiter.isAccessOkay("10.0." + i / 256 + "." + i % 256));
+    }
+    for (int i = 0; i < 5000; i++) {
+      assertTrue(limiter.isAccessOkay("10.0." + i / 256 + "." + i % 256));
+    }
+    for (int i = 0; i < 5000; i++) {
+      assertFalse(limiter.isAccessOkay("10.0." + i / 256 + "." + i % 256));
+    }
+    assertThat(limiter.getClientCount(), is(5000));
+  }
+
+  @Test
+  public void testIdleClientsAreRemoved() throws Exception {
+    final RequestLimiter limiter = new RequestLimiter(3, 1);
+    assertTrue(limiter.isAccessOkay("192.168.10.1"));
+    assertTrue(limiter.isAccessOkay("192.168.10.2"));
+    assertThat(limiter.getClientCount(), is(2));
+    Thread.sleep(2500);
+    assertTrue(limiter.isAccessOkay("192.168.10.3"));
+    assertThat(limiter.getClientCount(), is(1));
+  }
   
 }
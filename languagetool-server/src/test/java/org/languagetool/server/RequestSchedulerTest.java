@@ -0,0 +1,111 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class RequestSchedulerTest {
+
+  @Test
+  public void testLanes() {
+    final HTTPServerConfig config = new HTTPServerConfig();
+    config.setThreads(3);
+    config.setMaxQueueSize(4);
+    config.setShortTextThreads(1);
+    config.setShortTextLength(10);
+    final RequestScheduler scheduler = new RequestScheduler(config);
+    final RequestScheduler.Lane shortTextLane = scheduler.getLane(10);
+    final RequestScheduler.Lane lane = scheduler.getLane(11);
+    assertNotSame(lane, shortTextLane);
+    assertSame(shortTextLane, scheduler.getLane(0));
+    assertEquals(3 + 4 + 1 + 4, scheduler.getMaxRequests());
+
+    config.setShortTextThreads(0);
+    final RequestScheduler scheduler2 = new RequestScheduler(config);
+    assertSame(scheduler2.getLane(10), scheduler2.getLane(11));
+  }
+
+  @Test
+  public void testRejectWhenQueueIsFull() throws Exception {
+    final RequestScheduler.Lane lane = new RequestScheduler.Lane("texts", 1, 1, 10);
+    assertTrue(lane.acquire());
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final Future<Boolean> waiting = executor.submit(new Callable<Boolean>() {
+        @Override
+        public Boolean call() throws Exception {
+          return lane.acquire();
+        }
+      });
+      while (lane.getQueueSize() == 0) {
+        Thread.sleep(10);
+      }
+      assertFalse(lane.acquire());  // queue is full
+      lane.release();
+      assertTrue(waiting.get());
+      lane.release();
+      assertEquals(0, lane.getQueueSize());
+      assertTrue(lane.acquire());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testRejectAfterWaitTime() throws Exception {
+    final RequestScheduler.Lane lane = new RequestScheduler.Lane("texts", 1, 5, 1);
+    assertTrue(lane.acquire());
+    final long startTime = System.currentTimeMillis();
+    assertFalse(lane.acquire());
+    assertTrue(System.currentTimeMillis() - startTime >= 900);
+    assertEquals(0, lane.getQueueSize());
+  }
+
+  @Test
+  public void testNoQueue() throws Exception {
+    final RequestScheduler.Lane lane = new RequestScheduler.Lane("texts", 2, 0, 10);
+    assertTrue(lane.acquire());
+    assertTrue(lane.acquire());
+    assertFalse(lane.acquire());
+    lane.release();
+    assertTrue(lane.acquire());
+  }
+
+  @Test
+  public void testSeveralPermits() throws Exception {
+    final RequestScheduler.Lane lane = new RequestScheduler.Lane("texts", 3, 0, 10);
+    assertEquals(1, lane.getPermits(0));
+    assertEquals(2, lane.getPermits(2));
+    assertEquals("not more than the lane has", 3, lane.getPermits(4));
+    assertTrue(lane.acquire(2));
+    assertFalse(lane.acquire(2));
+    assertTrue(lane.acquire());
+    assertFalse(lane.acquire());
+    lane.release(2);
+    assertTrue(lane.acquire(2));
+  }
+
+}
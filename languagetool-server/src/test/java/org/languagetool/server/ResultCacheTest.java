@@ -0,0 +1,159 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.junit.Test;
+import org.languagetool.JLanguageTool;
+import org.languagetool.language.English;
+import org.languagetool.rules.RuleMatch;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ResultCacheTest {
+
+  @Test
+  public void testGetParagraphs() {
+    assertEquals(Arrays.asList(""), ResultCache.getParagraphs("", false));
+    assertEquals(Arrays.asList("foo\nbar"), ResultCache.getParagraphs("foo\nbar", false));
+    assertEquals(Arrays.asList("foo\n", "bar"), ResultCache.getParagraphs("foo\nbar", true));
+    assertEquals(Arrays.asList("foo\n\n", "bar\r\n\r\n\n", "x\n"), ResultCache.getParagraphs("foo\n\nbar\r\n\r\n\nx\n", false));
+    assertEquals(Arrays.asList("\n\n", "foo"), ResultCache.getParagraphs("\n\nfoo", false));
+  }
+
+  @Test
+  public void testSameMatchesAsWithoutCache() throws Exception {
+    final JLanguageTool lt = new JLanguageTool(new English());
+    lt.activateDefaultPatternRules();
+    final LanguageToolPool.Key key = new LanguageToolPool.Key(new English(), null);
+    final ResultCache cache = new ResultCache(100, 60);
+    final String text = "This is an test.\n\nA paragraph without errors.\nIt has two lines with an mistake.\n\nThis is a test test.";
+    final List<RuleMatch> expected = lt.check(text);
+    assertEquals(3, expected.size());
+    assertSameMatches(expected, cache.check(lt, key, text).getMatches());
+    assertEquals(0, cache.getHitCount());
+    assertEquals(3, cache.getMissCount());
+    assertEquals(3, cache.getSize());
+
+    // the second paragraph changes, so only this one is checked again:
+    final String newText = text.replace("two lines", "two short lines");
+    assertSameMatches(lt.check(newText), cache.check(lt, key, newText).getMatches());
+    assertEquals(2, cache.getHitCount());
+    assertEquals(4, cache.getMissCount());
+    assertSameMatches(lt.check(newText), cache.check(lt, key, newText).getMatches());
+    assertEquals(5, cache.getHitCount());
+
+    // other rule configuration, so the cached matches must not be used:
+    final LanguageToolPool.Key otherKey = new LanguageToolPool.Key(new English(), null,
+            Collections.<String>emptyList(), Arrays.asList("EN_A_VS_AN"), false);
+    cache.check(lt, otherKey, newText);
+    assertEquals(5, cache.getHitCount());
+  }
+
+  @Test
+  public void testPartialResultNotCached() throws Exception {
+    final JLanguageTool lt = new JLanguageTool(new English());
+    lt.activateDefaultPatternRules();
+    lt.setTimeBudgetMillis(1);
+    final LanguageToolPool.Key key = new LanguageToolPool.Key(new English(), null);
+    final ResultCache cache = new ResultCache(100, 60);
+    final StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      text.append("This is an test. ");
+    }
+    final CheckResult result = cache.check(lt, key, text.toString());
+    assertTrue(result.isPartial());
+    assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    final ResultCache cache = new ResultCache(2, 60);
+    final LanguageToolPool.Key key = new LanguageToolPool.Key(new English(), null);
+    final List<RuleMatch> matches = Collections.emptyList();
+    cache.put(new ResultCache.CacheKey(key, "a"), matches, 0);
+    cache.put(new ResultCache.CacheKey(key, "b"), matches, 0);
+    assertNotNull(cache.get(new ResultCache.CacheKey(key, "a"), 1000));
+    cache.put(new ResultCache.CacheKey(key, "c"), matches, 0);
+    assertEquals(2, cache.getSize());
+    assertEquals(1, cache.getEvictionCount());
+    assertNull("least recently used entry removed", cache.get(new ResultCache.CacheKey(key, "b"), 1000));
+    assertNotNull(cache.get(new ResultCache.CacheKey(key, "a"), 1000));
+    assertNull("too old", cache.get(new ResultCache.CacheKey(key, "c"), 61_000));
+    assertEquals(2, cache.getEvictionCount());
+    assertEquals(1, cache.getSize());
+  }
+
+  @Test
+  public void testNormalizedLineBreaks() throws Exception {
+    final JLanguageTool lt = new JLanguageTool(new English());
+    lt.activateDefaultPatternRules();
+    final LanguageToolPool.Key key = new LanguageToolPool.Key(new English(), null);
+    final ResultCache cache = new ResultCache(100, 60);
+    final String text = "This is an test.\n\nIt has two lines\nwith an mistake.\n\nThis is a test test.";
+    assertSameMatches(lt.check(text), cache.check(lt, key, text).getMatches());
+    assertEquals(3, cache.getMissCount());
+
+    // the same paragraphs with other line breaks are found in the cache:
+    final String crlfText = text.replace("\n", "\r\n");
+    final List<RuleMatch> matches = cache.check(lt, key, crlfText).getMatches();
+    assertEquals(3, cache.getHitCount());
+    assertEquals(3, cache.getMissCount());
+    assertSameMatches(lt.check(crlfText), matches);
+    final List<RuleMatch> lfMatches = lt.check(text);
+    for (int i = 0; i < matches.size(); i++) {
+      assertEquals(text.substring(lfMatches.get(i).getFromPos(), lfMatches.get(i).getToPos()),
+              crlfText.substring(matches.get(i).getFromPos(), matches.get(i).getToPos()));
+    }
+  }
+
+  @Test
+  public void testToOriginalPosition() {
+    final String paragraph = "a\r\nb\r\n\r\n";
+    final String normalized = ResultCache.normalizeLineBreaks(paragraph);
+    assertEquals("a\nb\n\n", normalized);
+    final int[] removed = ResultCache.getRemovedCarriageReturns(paragraph, normalized);
+    assertArrayEquals(new int[] {1, 3, 4}, removed);
+    assertEquals(0, ResultCache.toOriginalPosition(0, removed));
+    assertEquals(1, ResultCache.toOriginalPosition(1, removed));
+    assertEquals(3, ResultCache.toOriginalPosition(2, removed));
+    assertEquals(4, ResultCache.toOriginalPosition(3, removed));
+    assertEquals(8, ResultCache.toOriginalPosition(5, removed));
+    assertEquals(0, ResultCache.getRemovedCarriageReturns("a\nb", "a\nb").length);
+  }
+
+  private void assertSameMatches(List<RuleMatch> expected, List<RuleMatch> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      final RuleMatch expectedMatch = expected.get(i);
+      final RuleMatch match = actual.get(i);
+      assertEquals(expectedMatch.toString(), match.toString());
+      assertEquals(expectedMatch.getSuggestedReplacements(), match.getSuggestedReplacements());
+      assertEquals(expectedMatch.getOffset(), match.getOffset());
+      assertEquals(expectedMatch.getLine(), match.getLine());
+      assertEquals(expectedMatch.getEndLine(), match.getEndLine());
+      assertEquals(expectedMatch.getColumn(), match.getColumn());
+      assertEquals(expectedMatch.getEndColumn(), match.getEndColumn());
+    }
+  }
+
+}
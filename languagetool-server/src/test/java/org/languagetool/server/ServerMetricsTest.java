@@ -0,0 +1,90 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.junit.Test;
+import org.languagetool.CheckTimingListener;
+import org.languagetool.JLanguageTool;
+import org.languagetool.RuleTimings;
+import org.languagetool.language.English;
+import org.languagetool.rules.Rule;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ServerMetricsTest {
+
+  @Test
+  public void testHistogram() throws Exception {
+    final ServerMetrics.Histogram histogram = new ServerMetrics.Histogram(new double[] {0.001, 0.01});
+    histogram.add(500_000);
+    histogram.add(1_000_000);
+    histogram.add(2_000_000);
+    histogram.add(20_000_000);
+    final StringWriter writer = new StringWriter();
+    histogram.write(writer, "test_seconds", "stage=\"x\",");
+    assertEquals("test_seconds_bucket{stage=\"x\",le=\"0.001\"} 2\n" +
+            "test_seconds_bucket{stage=\"x\",le=\"0.01\"} 3\n" +
+            "test_seconds_bucket{stage=\"x\",le=\"+Inf\"} 4\n" +
+            "test_seconds_sum{stage=\"x\"} 0.0235\n" +
+            "test_seconds_count{stage=\"x\"} 4\n", writer.toString());
+  }
+
+  @Test
+  public void testMetrics() throws Exception {
+    final ServerMetrics metrics = new ServerMetrics();
+    final JLanguageTool lt = new JLanguageTool(new English());
+    lt.setCheckTimingListener(metrics);
+    final StringBuilder text = new StringBuilder();
+    for (int i = 0; i < RuleTimings.SAMPLE_INTERVAL; i++) {
+      text.append("This is a test. ");
+    }
+    lt.check(text.toString());
+    metrics.requestStarted();
+    metrics.checkDone(30);
+    final List<Map.Entry<String, Long>> slowestRules = metrics.getSlowestRules(3);
+    assertEquals(3, slowestRules.size());
+    assertTrue(slowestRules.get(0).getValue() >= slowestRules.get(1).getValue());
+    final Rule someRule = lt.getAllRules().get(0);
+    metrics.ruleDone(someRule, 1_000_000_000_000L / RuleTimings.SAMPLE_INTERVAL);
+    assertEquals(someRule.getId(), metrics.getSlowestRules(1).get(0).getKey());
+
+    final StringWriter writer = new StringWriter();
+    final LanguageToolPool pool = new LanguageToolPool(1, 0);
+    pool.returnInstance(new LanguageToolPool.Key(new English(), null), lt);
+    metrics.write(writer, new RequestScheduler(new HTTPServerConfig()), pool, new ResultCache(10, 10));
+    final String result = writer.toString();
+    assertTrue(result.contains("# TYPE languagetool_requests_total counter\nlanguagetool_requests_total 1\n"));
+    assertTrue(result.contains("languagetool_requests_active 1\n"));
+    assertTrue(result.contains("languagetool_queue_size{lane=\"short texts\"} 0\n"));
+    assertTrue(result.contains("languagetool_check_duration_seconds_bucket{le=\"0.05\"} 1\n"));
+    assertTrue(result.contains("languagetool_stage_duration_seconds_count{stage=\"" +
+            CheckTimingListener.Stage.TAGGING.name().toLowerCase() + "\"} " + RuleTimings.SAMPLE_INTERVAL + "\n"));
+    assertTrue(result.contains("languagetool_stage_duration_seconds_count{stage=\"sentence_tokenizing\"} 1\n"));
+    assertTrue(result.contains("languagetool_rule_duration_seconds_total{rule=\"" + someRule.getId() + "\"} 1000."));
+    assertTrue(result.contains("languagetool_pool_idle_instances{language=\"en\"} 1\n"));
+    assertTrue(result.contains("languagetool_cache_hits_total 0\n"));
+    assertTrue(result.contains("jvm_memory_heap_used_bytes "));
+    pool.shutdown();
+  }
+
+}
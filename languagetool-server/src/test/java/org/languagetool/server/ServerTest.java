@@ -0,0 +1,72 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.server;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class ServerTest {
+
+  @Test
+  public void testExecutorRunsRejectedRequestsAsOverloaded() throws Exception {
+    final HTTPServerConfig config = new HTTPServerConfig();
+    config.setThreads(1);
+    config.setMaxQueueSize(0);
+    config.setShortTextThreads(0);
+    final ExecutorService executor = Server.createExecutorService(new RequestScheduler(config));
+    final CountDownLatch blocker = new CountDownLatch(1);
+    final Runnable blocking = new Runnable() {
+      @Override
+      public void run() {
+        try {
+          blocker.await();
+        } catch (InterruptedException ignored) {
+          // test is over
+        }
+      }
+    };
+    try {
+      boolean rejected = false;
+      for (int i = 0; i < 100 && !rejected; i++) {
+        final AtomicBoolean overloaded = new AtomicBoolean();
+        executor.execute(new Runnable() {
+          @Override
+          public void run() {
+            overloaded.set(Server.isOverloaded());
+            if (!overloaded.get()) {
+              blocking.run();
+            }
+          }
+        });
+        rejected = overloaded.get();
+      }
+      assertTrue("connections beyond threads and queue are handled as overloaded", rejected);
+      assertFalse(Server.isOverloaded());
+    } finally {
+      blocker.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+}
@@ -83,6 +83,7 @@ import javax.swing.text.View;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.tika.language.LanguageIdentifier;
+import org.languagetool.IncrementalChecker;
 import org.languagetool.JLanguageTool;
 import org.languagetool.Language;
 import org.languagetool.MultiThreadedJLanguageTool;
@@ -118,6 +119,9 @@ class LanguageToolSupport {
   private final Map<Language, ConfigurationDialog> configDialogs = new HashMap<>();
 
   private JLanguageTool languageTool;
+  // re-checks only the edited sentences, using the threads of languageTool; replaced whenever the rules
+  // change, as it's used by the check thread:
+  private volatile IncrementalChecker incrementalChecker;
   // a red color highlight painter for marking spelling errors
   private HighlightPainter redPainter;
   // a blue color highlight painter for marking grammar errors
@@ -239,6 +243,7 @@ class LanguageToolSupport {
           languageTool.enableRule(ruleName);
         }
       }
+      incrementalChecker = new IncrementalChecker(languageTool);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -403,6 +408,7 @@ class LanguageToolSupport {
   void disableRule(String rule) {
     config.getDisabledRuleIds().add(rule);
     languageTool.disableRule(rule);
+    incrementalChecker = new IncrementalChecker(languageTool);
     updateHighlights(rule);
     fireEvent(LanguageToolEvent.Type.RULE_DISABLED, null);
   }
@@ -410,6 +416,7 @@ class LanguageToolSupport {
   void enableRule(String rule) {
     config.getDisabledRuleIds().remove(rule);
     languageTool.enableRule(rule);
+    incrementalChecker = new IncrementalChecker(languageTool);
     fireEvent(LanguageToolEvent.Type.RULE_ENABLED, null);
     checkImmediately(null);
   }
@@ -443,7 +450,7 @@ class LanguageToolSupport {
 
       popup.add(new JSeparator());
 
-      for (String r : span.replacement) {
+      for (String r : span.match.getSuggestedReplacements()) {
         ReplaceMenuItem item = new ReplaceMenuItem(r, span);
         popup.add(item);
         item.addActionListener(actionListener);
@@ -700,7 +707,7 @@ class LanguageToolSupport {
         throw new RuntimeException(ex);
       }
     }
-    final List<RuleMatch> matches = this.languageTool.check(this.textComponent.getText());
+    final List<RuleMatch> matches = this.incrementalChecker.check(this.textComponent.getText());
     int v = check.get();
     if (v == 0) {
       if (!SwingUtilities.isEventDispatchThread()) {
@@ -832,8 +839,8 @@ class LanguageToolSupport {
     span.msg = StringUtils.isNotEmpty(match.getShortMessage()) ? match.getShortMessage() : match.getMessage();
     span.msg = Tools.shortenComment(span.msg);
     span.desc = match.getMessage();
-    span.replacement = new ArrayList<>();
-    span.replacement.addAll(match.getSuggestedReplacements());
+    // the suggestions are only computed when the popup menu is shown:
+    span.match = match;
     span.rule = match.getRule();
     spans.add(span);
   }
@@ -1011,7 +1018,7 @@ class LanguageToolSupport {
     private int end;
     private String msg;
     private String desc;
-    private List<String> replacement;
+    private RuleMatch match;
     private Rule rule;
   }
 
@@ -0,0 +1,107 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.rules.patterns;
+
+import org.languagetool.AnalyzedSentence;
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.rules.Rule;
+import org.languagetool.tools.StringTools;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compare the time needed to match all pattern rules against a text, once with
+ * {@link PatternRule#canBeIgnoredFor(AnalyzedSentence)} as the only filter and once
+ * with {@link PatternRuleIndex}. Not a unit test, for interactive use only.
+ */
+final class PatternRuleIndexPerformanceTest {
+
+  private static final int RUNS = 5;
+
+  private PatternRuleIndexPerformanceTest() {
+  }
+
+  private void run(Language language, File textFile) throws IOException {
+    final String text = StringTools.readStream(new FileInputStream(textFile), "utf-8");
+    final JLanguageTool langTool = new JLanguageTool(language);
+    langTool.activateDefaultPatternRules();
+    final List<PatternRule> rules = new ArrayList<>();
+    for (Rule rule : langTool.getAllRules()) {
+      if (rule instanceof PatternRule) {
+        rules.add((PatternRule) rule);
+      }
+    }
+    final List<AnalyzedSentence> sentences = langTool.analyzeText(text);
+    System.out.println("Text length: " + text.length() + " chars, " + sentences.size() + " sentences, " + rules.size() + " pattern rules");
+    final PatternRuleIndex index = new PatternRuleIndex(rules);
+    for (int i = 0; i < RUNS; i++) {
+      long startTime = System.currentTimeMillis();
+      final int matches1 = matchWithoutIndex(rules, sentences);
+      final long runTime1 = System.currentTimeMillis() - startTime;
+      startTime = System.currentTimeMillis();
+      final int matches2 = matchWithIndex(index, rules, sentences);
+      final long runTime2 = System.currentTimeMillis() - startTime;
+      System.out.println("Run " + (i + 1) + ": without index: " + runTime1 + "ms, " + matches1 + " matches; "
+              + "with index: " + runTime2 + "ms, " + matches2 + " matches");
+      if (matches1 != matches2) {
+        throw new RuntimeException("Different number of matches: " + matches1 + " != " + matches2);
+      }
+    }
+  }
+
+  private int matchWithoutIndex(List<PatternRule> rules, List<AnalyzedSentence> sentences) throws IOException {
+    int matches = 0;
+    for (AnalyzedSentence sentence : sentences) {
+      for (PatternRule rule : rules) {
+        if (!rule.canBeIgnoredFor(sentence)) {
+          matches += rule.match(sentence).length;
+        }
+      }
+    }
+    return matches;
+  }
+
+  private int matchWithIndex(PatternRuleIndex index, List<PatternRule> rules, List<AnalyzedSentence> sentences) throws IOException {
+    int matches = 0;
+    for (AnalyzedSentence sentence : sentences) {
+      final PatternRuleIndex.SentenceFilter filter = index.getFilter(sentence);
+      for (PatternRule rule : rules) {
+        if (!filter.canBeIgnored(rule)) {
+          matches += rule.match(sentence).length;
+        }
+      }
+    }
+    return matches;
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.out.println("Usage: " + PatternRuleIndexPerformanceTest.class.getSimpleName() + " <languageCode> <text_file>");
+      System.exit(1);
+    }
+    final PatternRuleIndexPerformanceTest test = new PatternRuleIndexPerformanceTest();
+    test.run(Language.getLanguageForShortName(args[0]), new File(args[1]));
+  }
+
+}
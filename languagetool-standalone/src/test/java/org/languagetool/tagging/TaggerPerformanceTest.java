@@ -0,0 +1,83 @@
+/* LanguageTool, a natural language style checker
+ * Copyright (C) 2014 Daniel Naber (http://www.danielnaber.de)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301
+ * USA
+ */
+package org.languagetool.tagging;
+
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.tools.StringTools;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measure the time needed to tag a text with a {@link BaseTagger} and the hit rate of
+ * its {@link DictionaryLookupCache}. The first run starts with an empty cache.
+ * Not a unit test, for interactive use only.
+ */
+final class TaggerPerformanceTest {
+
+  private static final int RUNS = 5;
+
+  private TaggerPerformanceTest() {
+  }
+
+  private void run(Language language, File textFile) throws IOException {
+    final String text = StringTools.readStream(new FileInputStream(textFile), "utf-8");
+    final Tagger tagger = language.getTagger();
+    if (!(tagger instanceof BaseTagger)) {
+      throw new IllegalArgumentException("Language " + language + " doesn't use a " + BaseTagger.class.getSimpleName());
+    }
+    final DictionaryLookupCache cache = ((BaseTagger) tagger).getLookupCache();
+    final JLanguageTool langTool = new JLanguageTool(language);
+    final List<List<String>> sentences = new ArrayList<>();
+    int tokenCount = 0;
+    for (String sentence : langTool.sentenceTokenize(text)) {
+      final List<String> tokens = language.getWordTokenizer().tokenize(sentence);
+      sentences.add(tokens);
+      tokenCount += tokens.size();
+    }
+    System.out.println("Text length: " + text.length() + " chars, " + sentences.size() + " sentences, " + tokenCount + " tokens");
+    for (int i = 0; i < RUNS; i++) {
+      final long hits = cache.getHitCount();
+      final long misses = cache.getMissCount();
+      final long startTime = System.currentTimeMillis();
+      for (List<String> sentence : sentences) {
+        tagger.tag(sentence);
+      }
+      final long runTime = System.currentTimeMillis() - startTime;
+      final long runHits = cache.getHitCount() - hits;
+      final long runLookups = runHits + cache.getMissCount() - misses;
+      System.out.println("Run " + (i + 1) + ": " + runTime + "ms, cache hit rate "
+              + (runLookups == 0 ? 0 : 100 * runHits / runLookups) + "%, " + cache.getSize() + " word forms cached");
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.out.println("Usage: " + TaggerPerformanceTest.class.getSimpleName() + " <languageCode> <text_file>");
+      System.exit(1);
+    }
+    final TaggerPerformanceTest test = new TaggerPerformanceTest();
+    test.run(Language.getLanguageForShortName(args[0]), new File(args[1]));
+  }
+
+}
@@ -154,6 +154,8 @@ public class SentenceSourceChecker {
     int sentenceCount = 0;
     try {
       if (propFile != null) {
+        // the database doesn't store suggestions, so don't compute them:
+        languageTool.setSuggestionsEnabled(false);
         resultHandler = new DatabaseHandler(propFile, maxSentences, maxErrors);
       } else {
         resultHandler = new StdoutHandler(maxSentences, maxErrors);